@@ -0,0 +1,280 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.huabao.jsonschema2pojo.exception.GenerationException;
+import org.huabao.jsonschema2pojo.util.Fingerprints;
+import org.huabao.jsonschema2pojo.util.JsonNodeBinaryCodec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link ContentResolver} that keeps each document it parses in a cache
+ * directory, using the binary encoding of {@link JsonNodeBinaryCodec}, so that
+ * later runs can skip text parsing entirely.
+ * <p>
+ * Each entry is keyed by the document URI and records the modification time,
+ * size and content hash of the document it was created from. For local files
+ * an entry is used as-is while the modification time and size are unchanged;
+ * otherwise the document is read and the entry is used only if the content
+ * hash still matches. Content that a caller has read itself and passes to
+ * {@link #parse(URI, byte[])} is matched by content hash too. Entries are
+ * memory-mapped on read. When the cache grows
+ * beyond its size limit, the least recently used entries are removed.
+ */
+public class CachingContentResolver extends ContentResolver {
+
+    private static final int MAGIC = 0x4a32500a;
+
+    private static final String ENTRY_SUFFIX = ".bin";
+
+    private static final int HASH_LENGTH = 64;
+
+    private final File cacheDirectory;
+    private final long maxBytes;
+    private final String formatName;
+
+    private final AtomicLong cacheSize = new AtomicLong(-1);
+
+    public CachingContentResolver(File cacheDirectory, long maxBytes) {
+        this(null, cacheDirectory, maxBytes);
+    }
+
+    public CachingContentResolver(JsonFactory jsonFactory, File cacheDirectory, long maxBytes) {
+        this(jsonFactory, null, cacheDirectory, maxBytes);
+    }
+
+    public CachingContentResolver(JsonFactory jsonFactory, HttpContentFetcher httpContentFetcher, File cacheDirectory, long maxBytes) {
+        super(jsonFactory, httpContentFetcher);
+
+        if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            throw new GenerationException("Could not create or access cache directory " + cacheDirectory.getAbsolutePath());
+        }
+
+        this.cacheDirectory = cacheDirectory;
+        this.maxBytes = maxBytes;
+        this.formatName = jsonFactory == null ? JsonFactory.FORMAT_NAME_JSON : jsonFactory.getFormatName();
+    }
+
+    @Override
+    public JsonNode resolve(URI uri) {
+
+        File entry = entry(uri);
+        File source = toFile(uri);
+
+        long lastModified = source == null ? -1 : source.lastModified();
+        if (source != null) {
+            JsonNode cached = readEntry(entry, lastModified, source.length(), null);
+            if (cached != null) {
+                return prefetchReferences(uri, cached);
+            }
+        }
+
+        return parse(uri, read(uri), entry, lastModified);
+    }
+
+    /**
+     * Parses content that the caller has read from the given URI itself (see
+     * {@link #read(URI)}), using the cached tree when the entry for the URI
+     * has the same content hash.
+     */
+    @Override
+    public JsonNode parse(URI uri, byte[] content) {
+        return parse(uri, content, entry(uri), -1);
+    }
+
+    /**
+     * @param lastModified
+     *            the modification time of the source file, taken before its
+     *            content was read, or <code>-1</code> if it is unknown (the
+     *            entry is then only matched by content hash)
+     */
+    private JsonNode parse(URI uri, byte[] content, File entry, long lastModified) {
+        String hash = Fingerprints.of(content);
+
+        JsonNode cached = readEntry(entry, -1, -1, hash);
+        if (cached != null) {
+            if (lastModified >= 0) {
+                writeEntry(entry, lastModified, content.length, hash, cached);
+            }
+            return prefetchReferences(uri, cached);
+        }
+
+        JsonNode parsed = super.parse(uri, content);
+        writeEntry(entry, lastModified, content.length, hash, parsed);
+        return parsed;
+    }
+
+    private File entry(URI uri) {
+        return new File(cacheDirectory, Fingerprints.of((formatName + "\n" + uri).getBytes(StandardCharsets.UTF_8)) + ENTRY_SUFFIX);
+    }
+
+    private static File toFile(URI uri) {
+        if ("file".equals(uri.getScheme())) {
+            try {
+                File file = new File(uri);
+                return file.isFile() ? file : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the given entry if it matches either the given modification time
+     * and size, or the given content hash.
+     *
+     * @return the cached tree, or <code>null</code> if the entry is missing,
+     *         stale or unreadable
+     */
+    private JsonNode readEntry(File entry, long lastModified, long size, String hash) {
+        if (!entry.isFile()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(entry.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            long entryLastModified = buffer.getLong();
+            long entrySize = buffer.getLong();
+            byte[] entryHash = new byte[HASH_LENGTH];
+            buffer.get(entryHash);
+
+            boolean matches = hash == null
+                    ? lastModified >= 0 && entryLastModified == lastModified && entrySize == size
+                    : hash.equals(new String(entryHash, StandardCharsets.US_ASCII));
+            if (!matches) {
+                return null;
+            }
+
+            JsonNode content = JsonNodeBinaryCodec.read(buffer);
+            touch(entry);
+            return content;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            // an unreadable entry is treated as a missing one, and replaced
+            return null;
+        }
+    }
+
+    @edu.umd.cs.findbugs.annotations.SuppressWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE")
+    private static void touch(File entry) {
+        entry.setLastModified(System.currentTimeMillis());
+    }
+
+    private void writeEntry(File entry, long lastModified, long size, String hash, JsonNode content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeLong(lastModified);
+            out.writeLong(size);
+            out.write(hash.getBytes(StandardCharsets.US_ASCII));
+            JsonNodeBinaryCodec.write(content, out);
+        } catch (IOException | IllegalArgumentException e) {
+            // content that can't be encoded is simply not cached
+            return;
+        }
+
+        long previousSize = entry.length();
+        try {
+            Path temp = Files.createTempFile(cacheDirectory.toPath(), entry.getName(), ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, entry.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // the cache is only an optimisation, a failed write leaves the document uncached
+            return;
+        }
+
+        if (growCacheSize(bytes.size() - previousSize) > maxBytes) {
+            evict();
+        }
+    }
+
+    private long growCacheSize(long delta) {
+        if (cacheSize.get() < 0) {
+            synchronized (cacheSize) {
+                if (cacheSize.get() < 0) {
+                    long total = 0;
+                    for (File entry : entries()) {
+                        total += entry.length();
+                    }
+                    cacheSize.set(total);
+                    return total;
+                }
+            }
+        }
+        return cacheSize.addAndGet(delta);
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is within its
+     * size limit.
+     */
+    private synchronized void evict() {
+        File[] entries = entries();
+        long[] lastUsed = new long[entries.length];
+        Integer[] order = new Integer[entries.length];
+        long total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            lastUsed[i] = entries[i].lastModified();
+            order[i] = i;
+            total += entries[i].length();
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> lastUsed[i]));
+
+        for (int i = 0; i < order.length && total > maxBytes; i++) {
+            File entry = entries[order[i]];
+            long length = entry.length();
+            if (entry.delete()) {
+                total -= length;
+            }
+        }
+        cacheSize.set(total);
+    }
+
+    private File[] entries() {
+        File[] entries = cacheDirectory.listFiles((dir, name) -> name.endsWith(ENTRY_SUFFIX));
+        return entries == null ? new File[0] : entries;
+    }
+
+}
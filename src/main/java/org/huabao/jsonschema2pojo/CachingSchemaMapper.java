@@ -0,0 +1,195 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.huabao.jsonschema2pojo.rules.RuleFactory;
+import org.huabao.jsonschema2pojo.util.Fingerprints;
+
+/**
+ * A {@link SchemaMapper} that keeps the sources generated by
+ * {@link #generateSources(String, String, String)} in memory, so that asking
+ * for the same schema again returns the same sources without applying the
+ * rules again.
+ * <p>
+ * Entries are keyed by a canonical hash of the schema content (see
+ * {@link Fingerprints#of(com.fasterxml.jackson.databind.JsonNode)}, so
+ * property order and formatting don't matter), the hash of the generation
+ * config and the target class and package names. Documents referenced from
+ * the schema are not part of the key: a schema that refers to a document that
+ * later changes keeps its cached sources. When the cached sources grow beyond
+ * the size limit, the least recently used entries are removed.
+ */
+public class CachingSchemaMapper extends SchemaMapper {
+
+    private final long maxBytes;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    private volatile ConfigFingerprint configFingerprint;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param ruleFactory
+     *            A factory used by this mapper to create Java type generation
+     *            rules.
+     * @param schemaGenerator
+     *            the generator that this mapper will use if the config dictates
+     *            that the input documents are plain json (not json schema)
+     * @param maxBytes
+     *            the total size of the cached sources above which the least
+     *            recently used entries are removed
+     */
+    public CachingSchemaMapper(RuleFactory ruleFactory, SchemaGenerator schemaGenerator, long maxBytes) {
+        super(ruleFactory, schemaGenerator);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public Map<String, byte[]> generateSources(String className, String packageName, String json) throws IOException {
+
+        String key = key(className, packageName, json);
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            entry = new Entry(key, super.generateSources(className, packageName, json));
+            put(entry);
+        }
+
+        // copied, so that callers can't change the cached sources
+        Map<String, byte[]> sources = new TreeMap<>();
+        for (Map.Entry<String, byte[]> source : entry.sources.entrySet()) {
+            sources.put(source.getKey(), source.getValue().clone());
+        }
+        return Collections.unmodifiableMap(sources);
+    }
+
+    private String key(String className, String packageName, String json) throws IOException {
+        String content = Fingerprints.of(objectMapper().readTree(json));
+        String config = configFingerprint();
+        return Fingerprints.of((config + "\n" + packageName + "\n" + className + "\n" + content).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hashing the config reads every option, so the hash is only worked out
+     * again when the rule factory is given a different config.
+     */
+    private String configFingerprint() {
+        GenerationConfig config = getRuleFactory().getGenerationConfig();
+        ConfigFingerprint fingerprint = configFingerprint;
+        if (fingerprint == null || fingerprint.config != config) {
+            fingerprint = new ConfigFingerprint(config, Fingerprints.of(config));
+            configFingerprint = fingerprint;
+        }
+        return fingerprint.hash;
+    }
+
+    private void put(Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(entry.key, entry);
+            if (previous != null) {
+                size -= previous.size;
+            }
+            size += entry.size;
+
+            for (Iterator<Entry> leastRecentlyUsed = entries.values().iterator(); size > maxBytes && leastRecentlyUsed.hasNext();) {
+                size -= leastRecentlyUsed.next().size;
+                leastRecentlyUsed.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of requests answered from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of requests for which sources were generated
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the total size, in bytes, of the cached sources
+     */
+    public long getSize() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    public void clearCache() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    private static final class ConfigFingerprint {
+
+        private final GenerationConfig config;
+
+        private final String hash;
+
+        ConfigFingerprint(GenerationConfig config, String hash) {
+            this.config = config;
+            this.hash = hash;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final Map<String, byte[]> sources;
+        private final long size;
+
+        Entry(String key, Map<String, byte[]> sources) {
+            this.key = key;
+            this.sources = sources;
+
+            long sourcesSize = key.length();
+            for (Map.Entry<String, byte[]> source : sources.entrySet()) {
+                sourcesSize += source.getKey().length() + source.getValue().length;
+            }
+            this.size = sourcesSize;
+        }
+    }
+
+}
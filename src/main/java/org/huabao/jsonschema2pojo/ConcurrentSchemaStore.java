@@ -0,0 +1,97 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.huabao.jsonschema2pojo.exception.GenerationException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link SchemaStore} that can be shared by many threads. Lookups never
+ * block one another, and each document is read and parsed exactly once: a
+ * thread that asks for a document that another thread is already reading
+ * waits for that read to finish instead of starting its own. Documents that
+ * fail to load are not remembered, so a later lookup will try again.
+ */
+public class ConcurrentSchemaStore extends SchemaStore {
+
+    private final ConcurrentMap<URI, FutureTask<JsonNode>> documents = new ConcurrentHashMap<>();
+
+    public ConcurrentSchemaStore() {
+        this(new ContentResolver());
+    }
+
+    public ConcurrentSchemaStore(ContentResolver contentResolver) {
+        super(contentResolver, new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public Schema create(URI id, String refFragmentPathDelimiters) {
+
+        URI normalizedId = id.normalize();
+
+        Schema existing = schemas.get(normalizedId);
+        if (existing != null) {
+            return existing;
+        }
+
+        Schema schema = resolveSchema(id, refFragmentPathDelimiters);
+
+        existing = schemas.putIfAbsent(normalizedId, schema);
+        return existing != null ? existing : schema;
+    }
+
+    @Override
+    protected JsonNode resolveDocument(URI baseId) {
+
+        FutureTask<JsonNode> document = documents.get(baseId);
+        if (document == null) {
+            FutureTask<JsonNode> newDocument = new FutureTask<>(() -> super.resolveDocument(baseId));
+            document = documents.putIfAbsent(baseId, newDocument);
+            if (document == null) {
+                document = newDocument;
+                newDocument.run();
+            }
+        }
+
+        try {
+            return document.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerationException("Interrupted while reading " + baseId, e);
+        } catch (ExecutionException e) {
+            documents.remove(baseId, document);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GenerationException(e.getCause());
+        }
+    }
+
+    @Override
+    public void clearCache() {
+        documents.clear();
+        schemas.clear();
+    }
+
+}
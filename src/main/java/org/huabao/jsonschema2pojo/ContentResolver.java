@@ -19,12 +19,16 @@ package org.huabao.jsonschema2pojo;
 import static java.util.Arrays.*;
 import static org.apache.commons.lang3.StringUtils.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.apache.commons.io.IOUtils;
+import org.huabao.jsonschema2pojo.util.SchemaReferences;
+
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -41,14 +45,32 @@ public class ContentResolver {
     
     private final ObjectMapper objectMapper;
 
+    private final HttpContentFetcher httpContentFetcher;
+
     public ContentResolver() {
         this(null);
     }
 
     public ContentResolver(JsonFactory jsonFactory) {
+        this(jsonFactory, null);
+    }
+
+    /**
+     * @param jsonFactory
+     *            the factory used to parse documents, or <code>null</code> for
+     *            JSON
+     * @param httpContentFetcher
+     *            the fetcher used to download http/https documents; when
+     *            given, every http/https document referenced from a resolved
+     *            document starts downloading in the background straight away.
+     *            May be <code>null</code>, in which case http/https documents
+     *            are read directly from their URL.
+     */
+    public ContentResolver(JsonFactory jsonFactory, HttpContentFetcher httpContentFetcher) {
         this.objectMapper = new ObjectMapper(jsonFactory)
                 .enable(JsonParser.Feature.ALLOW_COMMENTS)
                 .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.httpContentFetcher = httpContentFetcher;
     }
 
     /**
@@ -69,11 +91,15 @@ public class ContentResolver {
     public JsonNode resolve(URI uri) {
 
         if (CLASSPATH_SCHEMES.contains(uri.getScheme())) {
-            return resolveFromClasspath(uri);
+            return prefetchReferences(uri, resolveFromClasspath(uri));
+        }
+
+        if (httpContentFetcher != null && HttpContentFetcher.isHttp(uri)) {
+            return parse(uri, read(uri));
         }
 
         try {
-            return objectMapper.readTree(uri.toURL());
+            return prefetchReferences(uri, objectMapper.readTree(uri.toURL()));
         } catch (JsonProcessingException e) {
             throw new IllegalArgumentException("Error parsing document: " + uri, e);
         } catch (IOException e) {
@@ -82,6 +108,83 @@ public class ContentResolver {
 
     }
 
+    /**
+     * Read the raw (unparsed) content found at the given URI. Supports the same
+     * protocols as {@link #resolve(URI)}.
+     *
+     * @param uri
+     *            the URI to read content from
+     * @return the bytes found at the given URI
+     */
+    public byte[] read(URI uri) {
+
+        try (InputStream contentAsStream = openStream(uri)) {
+            return IOUtils.toByteArray(contentAsStream);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri, e);
+        }
+
+    }
+
+    /**
+     * Parse content previously read from the given URI (see {@link #read(URI)}).
+     *
+     * @param uri
+     *            the URI the content was read from
+     * @param content
+     *            the raw content
+     * @return the JSON tree represented by the given content
+     */
+    public JsonNode parse(URI uri, byte[] content) {
+
+        try {
+            return prefetchReferences(uri, objectMapper.readTree(content));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error parsing document: " + uri, e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unrecognised URI, can't resolve this: " + uri, e);
+        }
+
+    }
+
+    private InputStream openStream(URI uri) throws IOException {
+
+        if (CLASSPATH_SCHEMES.contains(uri.getScheme())) {
+            String path = removeStart(removeStart(uri.toString(), uri.getScheme() + ":"), "/");
+            InputStream contentAsStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(path);
+
+            if (contentAsStream == null) {
+                throw new IllegalArgumentException("Couldn't read content from the classpath, file not found: " + uri);
+            }
+            return contentAsStream;
+        }
+
+        if (httpContentFetcher != null && HttpContentFetcher.isHttp(uri)) {
+            return new ByteArrayInputStream(httpContentFetcher.fetch(uri));
+        }
+
+        return uri.toURL().openStream();
+    }
+
+    /**
+     * Starts downloading the http/https documents referenced from the given
+     * content, when a fetcher is in use.
+     *
+     * @return the given content
+     */
+    protected JsonNode prefetchReferences(URI uri, JsonNode content) {
+
+        if (httpContentFetcher != null) {
+            for (URI reference : SchemaReferences.documentReferences(uri, content)) {
+                if (HttpContentFetcher.isHttp(reference)) {
+                    httpContentFetcher.prefetch(reference);
+                }
+            }
+        }
+
+        return content;
+    }
+
     private JsonNode resolveFromClasspath(URI uri) {
 
         String path = removeStart(removeStart(uri.toString(), uri.getScheme() + ":"), "/");
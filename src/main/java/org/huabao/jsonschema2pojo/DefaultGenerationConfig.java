@@ -499,4 +499,157 @@ public class DefaultGenerationConfig implements GenerationConfig {
     public boolean isIncludeLombok() {
         return true;
     }
+
+    /**
+     * @return <code>1</code>
+     */
+    @Override
+    public int getGenerationThreads() {
+        return 1;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isIncrementalGeneration() {
+        return false;
+    }
+
+    /**
+     * @return <code>null</code>
+     */
+    @Override
+    public File getContentCacheDirectory() {
+        return null;
+    }
+
+    /**
+     * @return <code>268435456</code>
+     */
+    @Override
+    public long getContentCacheMaxBytes() {
+        return 256L * 1024 * 1024;
+    }
+
+    /**
+     * @return <code>10000</code>
+     */
+    @Override
+    public int getHttpConnectTimeout() {
+        return 10000;
+    }
+
+    /**
+     * @return <code>30000</code>
+     */
+    @Override
+    public int getHttpReadTimeout() {
+        return 30000;
+    }
+
+    /**
+     * @return <code>4</code>
+     */
+    @Override
+    public int getHttpFetchThreads() {
+        return 4;
+    }
+
+    /**
+     * @return <code>null</code>
+     */
+    @Override
+    public File getHttpCacheDirectory() {
+        return null;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isStreamingExampleInference() {
+        return false;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isExampleCorpus() {
+        return false;
+    }
+
+    /**
+     * @return <code>0</code>
+     */
+    @Override
+    public int getExampleArraySampleSize() {
+        return 0;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isWriteOnlyChangedFiles() {
+        return false;
+    }
+
+    /**
+     * @return <code>0</code> (no limit)
+     */
+    @Override
+    public int getMaxGeneratedClasses() {
+        return 0;
+    }
+
+    /**
+     * @return <code>0</code> (no limit)
+     */
+    @Override
+    public int getMaxNestingDepth() {
+        return 0;
+    }
+
+    /**
+     * @return <code>0</code> (no limit)
+     */
+    @Override
+    public int getMaxPropertiesPerClass() {
+        return 0;
+    }
+
+    /**
+     * @return <code>0</code> (no limit)
+     */
+    @Override
+    public int getMaxEnumConstants() {
+        return 0;
+    }
+
+    /**
+     * @return <code>0</code> (no limit)
+     */
+    @Override
+    public long getMaxSourceBytes() {
+        return 0;
+    }
+
+    /**
+     * @return <code>false</code>
+     */
+    @Override
+    public boolean isDeduplicateInlineTypes() {
+        return false;
+    }
+
+    /**
+     * @return no roots (the whole of each source is generated)
+     */
+    @Override
+    public String[] getRootDefinitions() {
+        return new String[] {};
+    }
+
 }
@@ -19,27 +19,137 @@ package org.huabao.jsonschema2pojo;
 import org.huabao.codemodel.JPackage;
 import org.huabao.codemodel.util.UnicodeEscapeWriter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A writer that honours the given character encoding (workaround for an issue
  * with {@link org.huabao.codemodel.util.EncoderFactory#createEncoder(String)} that
  * causes the given encoding to be ignored).
+ * <p>
+ * Optionally, files are only written when their content has changed: each
+ * file is rendered into memory and compared with the file already in the
+ * target directory, which is left untouched (keeping its modification time)
+ * when the content is the same. Changed files are written to a temporary file
+ * that is then renamed over the old one, so a file is never seen half
+ * written.
  */
 public class FileCodeWriterWithEncoding extends org.huabao.codemodel.writer.FileCodeWriter {
 
+    private final File target;
+
+    private final boolean onlyWriteChanges;
+
+    private final AtomicInteger writtenFiles = new AtomicInteger();
+
+    private final AtomicInteger unchangedFiles = new AtomicInteger();
+
     public FileCodeWriterWithEncoding(File target, String encoding) throws IOException {
+        this(target, encoding, false);
+    }
+
+    /**
+     * @param target
+     *            the directory to write files to
+     * @param encoding
+     *            the character encoding of source files
+     * @param onlyWriteChanges
+     *            whether files whose content is the same as the file already
+     *            in the target directory are left untouched
+     */
+    public FileCodeWriterWithEncoding(File target, String encoding, boolean onlyWriteChanges) throws IOException {
         super(target, encoding);
+        this.target = target;
+        this.onlyWriteChanges = onlyWriteChanges;
+    }
+
+    @Override
+    public OutputStream openBinary(JPackage pkg, String fileName) throws IOException {
+        if (!onlyWriteChanges) {
+            writtenFiles.incrementAndGet();
+            return super.openBinary(pkg, fileName);
+        }
+
+        File directory = pkg.isUnnamed() ? target : new File(target, pkg.name().replace('.', File.separatorChar));
+        Path file = new File(directory, fileName).toPath();
+
+        return new ByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    writeIfChanged(file, toByteArray());
+                }
+            }
+        };
+    }
+
+    private void writeIfChanged(Path file, byte[] content) throws IOException {
+        if (Files.isRegularFile(file) && Files.size(file) == content.length && Arrays.equals(Files.readAllBytes(file), content)) {
+            unchangedFiles.incrementAndGet();
+            return;
+        }
+
+        Files.createDirectories(file.getParent());
+        // not Files.createTempFile, which would give the file (and so the renamed file) owner-only permissions
+        Path temporaryFile = file.resolveSibling("." + file.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            Files.write(temporaryFile, content, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        writtenFiles.incrementAndGet();
+    }
+
+    /**
+     * @return the number of files written so far
+     */
+    public int getWrittenFiles() {
+        return writtenFiles.get();
+    }
+
+    /**
+     * @return the number of files left untouched so far because their
+     *         content hadn't changed (always <code>0</code> unless only
+     *         changes are written)
+     */
+    public int getUnchangedFiles() {
+        return unchangedFiles.get();
     }
 
     @Override
     public Writer openSource(JPackage pkg, String fileName) throws IOException {
-        final Writer bw = new OutputStreamWriter(openBinary(pkg, fileName), encoding);
+        return openSource(openBinary(pkg, fileName), encoding);
+    }
+
+    /**
+     * Creates a writer for Java source that writes to the given stream in the
+     * given encoding, escaping control characters and characters that the
+     * encoding can't represent.
+     */
+    static Writer openSource(OutputStream outputStream, String encoding) throws IOException {
+        final Writer bw = new OutputStreamWriter(outputStream, encoding);
 
         return new UnicodeEscapeWriter(bw) {
             private final CharsetEncoder encoder = Charset.forName(encoding).newEncoder();
@@ -623,5 +623,280 @@ public interface GenerationConfig {
   boolean isIncludeJsonIgnorePropertiesAnnotation();
 
   boolean isIncludeLombok();
-  
+
+  /**
+   * Gets the 'generationThreads' configuration option.
+   *
+   * @return The number of worker threads used to read, resolve and parse
+   *         source files before types are generated, and to encode and write
+   *         the generated files. Type generation itself always happens on a
+   *         single thread, in source order, so the output is identical
+   *         whatever the thread count. The default value is <code>1</code>
+   *         (no worker pool).
+   */
+  default int getGenerationThreads() {
+    return 1;
+  }
+
+  /**
+   * Gets the 'incrementalGeneration' configuration option.
+   *
+   * @return Whether to only regenerate the sources that changed since the
+   *         previous run. A manifest of content hashes (covering each source
+   *         and the documents it refers to using <code>$ref</code>) and the
+   *         configuration is kept in the target directory; sources whose
+   *         documents are unchanged are skipped and their output files left
+   *         untouched. When enabled, 'removeOldOutput' is ignored and only the
+   *         files previously generated from changed or removed sources are
+   *         deleted. The default value is <code>false</code>.
+   */
+  default boolean isIncrementalGeneration() {
+    return false;
+  }
+
+  /**
+   * Gets the 'contentCacheDirectory' configuration option.
+   *
+   * @return A directory in which parsed schema documents are cached (in a
+   *         compact binary form) between runs, so that unchanged documents
+   *         need not be parsed again. With incremental generation (see
+   *         {@link #isIncrementalGeneration()}) documents are always read, to
+   *         be hashed, and the cache only saves parsing them. The default
+   *         value is <code>null</code> (no cache).
+   */
+  default File getContentCacheDirectory() {
+    return null;
+  }
+
+  /**
+   * Gets the 'contentCacheMaxBytes' configuration option.
+   *
+   * @return The maximum size of the content cache directory (see
+   *         {@link #getContentCacheDirectory()}). When exceeded, the least
+   *         recently used entries are removed. The default value is
+   *         <code>268435456</code> (256 MiB).
+   */
+  default long getContentCacheMaxBytes() {
+    return 256L * 1024 * 1024;
+  }
+
+  /**
+   * Gets the 'httpConnectTimeout' configuration option.
+   *
+   * @return The timeout, in milliseconds, for connecting to a server when
+   *         downloading http/https schema documents. The default value is
+   *         <code>10000</code>.
+   */
+  default int getHttpConnectTimeout() {
+    return 10000;
+  }
+
+  /**
+   * Gets the 'httpReadTimeout' configuration option.
+   *
+   * @return The timeout, in milliseconds, for reading a response when
+   *         downloading http/https schema documents. The default value is
+   *         <code>30000</code>.
+   */
+  default int getHttpReadTimeout() {
+    return 30000;
+  }
+
+  /**
+   * Gets the 'httpFetchThreads' configuration option.
+   *
+   * @return The maximum number of http/https schema documents downloaded
+   *         concurrently. Documents referenced from a schema start
+   *         downloading as soon as that schema has been read. The default
+   *         value is <code>4</code>.
+   */
+  default int getHttpFetchThreads() {
+    return 4;
+  }
+
+  /**
+   * Gets the 'httpCacheDirectory' configuration option.
+   *
+   * @return A directory in which downloaded http/https schema documents are
+   *         kept along with their <code>ETag</code> and
+   *         <code>Last-Modified</code> headers, so that later runs can
+   *         revalidate them with conditional requests instead of downloading
+   *         them again. The default value is <code>null</code> (no cache).
+   */
+  default File getHttpCacheDirectory() {
+    return null;
+  }
+
+  /**
+   * Gets the 'streamingExampleInference' configuration option.
+   *
+   * @return Whether to infer schemas from json/yaml examples (see
+   *         {@link #getSourceType()}) while each example is being read,
+   *         keeping only the shape of the example in memory, rather than
+   *         reading the whole example into memory first. Use this for very
+   *         large examples. The default value is <code>false</code>.
+   */
+  default boolean isStreamingExampleInference() {
+    return false;
+  }
+
+  /**
+   * Gets the 'exampleCorpus' configuration option.
+   *
+   * @return Whether each json/yaml source (see {@link #getSourceType()}) is a
+   *         corpus of examples from which a single schema is inferred, rather
+   *         than a single example. A source directory is read as one corpus
+   *         (every file below it is an example document) and each document
+   *         may hold many examples, e.g. newline delimited JSON. Where
+   *         examples disagree, types are widened and properties that are
+   *         missing (or null) in some examples are optional. Incremental
+   *         generation (see {@link #isIncrementalGeneration()}) isn't
+   *         supported for corpora, every corpus is read again on each run.
+   *         The default value is <code>false</code>.
+   */
+  default boolean isExampleCorpus() {
+    return false;
+  }
+
+  /**
+   * Gets the 'exampleArraySampleSize' configuration option.
+   *
+   * @return The number of elements of each array in a json/yaml example (see
+   *         {@link #getSourceType()}) that are sampled, at random, to infer
+   *         the type of the array's items. The types of the sampled elements
+   *         are combined: integers widen to longs and numbers, simple values
+   *         that are sometimes null are nullable, strings keep a format
+   *         (e.g. date-time) only if every sampled string has it, and
+   *         properties of object elements are only required if every
+   *         sampled object has them. The time and memory needed for an array
+   *         depend on the sample size, not the number of elements. The
+   *         default value is <code>0</code>, meaning the items are described
+   *         by the first element (or, for object elements, all object
+   *         elements merged together, the last value winning on conflicts).
+   */
+  default int getExampleArraySampleSize() {
+    return 0;
+  }
+
+  /**
+   * Gets the 'writeOnlyChangedFiles' configuration option.
+   *
+   * @return Whether generated files whose content is the same as the file
+   *         already in the target directory are left untouched, keeping
+   *         their modification time so that incremental compilers and file
+   *         watchers don't see them as changed. Changed files are replaced
+   *         atomically. Has no effect on files removed by
+   *         {@link #isRemoveOldOutput()}. The default value is
+   *         <code>false</code>.
+   */
+  default boolean isWriteOnlyChangedFiles() {
+    return false;
+  }
+
+  /**
+   * Gets the 'maxGeneratedClasses' configuration option.
+   *
+   * @return The maximum number of classes and enums that may be generated
+   *         from the schemas into one code model. Generation stops with a
+   *         {@link org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException}
+   *         as soon as the limit is passed. The default value is
+   *         <code>0</code>, meaning no limit.
+   */
+  default int getMaxGeneratedClasses() {
+    return 0;
+  }
+
+  /**
+   * Gets the 'maxNestingDepth' configuration option.
+   *
+   * @return The maximum number of schemas that may be nested inside each
+   *         other (through properties, array items, additional properties
+   *         and references) while generating. Generation stops with a
+   *         {@link org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException}
+   *         as soon as the limit is passed. The default value is
+   *         <code>0</code>, meaning no limit.
+   */
+  default int getMaxNestingDepth() {
+    return 0;
+  }
+
+  /**
+   * Gets the 'maxPropertiesPerClass' configuration option.
+   *
+   * @return The maximum number of properties that a schema may declare.
+   *         Generation stops with a
+   *         {@link org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException}
+   *         before the properties of a larger schema are generated. The
+   *         default value is <code>0</code>, meaning no limit.
+   */
+  default int getMaxPropertiesPerClass() {
+    return 0;
+  }
+
+  /**
+   * Gets the 'maxEnumConstants' configuration option.
+   *
+   * @return The maximum number of values that an enum schema may declare.
+   *         Generation stops with a
+   *         {@link org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException}
+   *         before a larger enum is generated. The default value is
+   *         <code>0</code>, meaning no limit.
+   */
+  default int getMaxEnumConstants() {
+    return 0;
+  }
+
+  /**
+   * Gets the 'maxSourceBytes' configuration option.
+   *
+   * @return The maximum number of bytes of Java source, in the output
+   *         encoding, that may be written in total. Writing stops with a
+   *         {@link org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException}
+   *         as soon as the limit is passed, which can leave some files
+   *         already written to the target directory. The default value is
+   *         <code>0</code>, meaning no limit.
+   */
+  default long getMaxSourceBytes() {
+    return 0;
+  }
+
+  /**
+   * Gets the 'deduplicateInlineTypes' configuration option.
+   *
+   * @return Whether inline object and enum schemas (those not reached through
+   *         a <code>$ref</code>) that are structurally identical, and are
+   *         generated into the same package, share a single generated type.
+   *         The type is named after the first schema that was generated; later
+   *         identical schemas reuse it. Property order, titles, descriptions
+   *         and every other keyword are part of the structure, so schemas
+   *         only differing in those still get their own type. Incremental
+   *         generation (see {@link #isIncrementalGeneration()}) is not used
+   *         when this option is set, since a source may then use types
+   *         generated for another source. The default value is
+   *         <code>false</code>.
+   */
+  default boolean isDeduplicateInlineTypes() {
+    return false;
+  }
+
+  /**
+   * Gets the 'rootDefinitions' configuration option.
+   *
+   * @return The schemas to generate types for in each source, when only part
+   *         of a large schema document (such as a bundle of many
+   *         definitions) is needed. Each is a JSON pointer into the document
+   *         (e.g. <code>#/definitions/Pet</code>) or the name of an entry in
+   *         the document's <code>definitions</code> or <code>$defs</code>.
+   *         Only the types for these roots, and for everything they refer to
+   *         directly or indirectly, are generated; the rest of the document
+   *         is never processed, and the number of definitions left out is
+   *         logged. Every root must be present in every source. Only applies
+   *         to schema sources (see {@link #getSourceType()}). The default
+   *         value is an empty array, meaning the whole of each source is
+   *         generated.
+   */
+  default String[] getRootDefinitions() {
+    return new String[] {};
+  }
+
 }
@@ -0,0 +1,240 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.huabao.codemodel.JCodeModel;
+import org.huabao.codemodel.JType;
+import org.huabao.jsonschema2pojo.rules.RuleFactory;
+import org.huabao.jsonschema2pojo.util.NameHelper;
+import org.huabao.jsonschema2pojo.util.TypeClassificationCache;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Generates types from schema (or example) content on request, for long
+ * running services. An engine is built once for a {@link GenerationConfig}
+ * and may then be used from any number of threads at once.
+ * <p>
+ * The parts that only depend on the config are created once and shared by
+ * every request: the annotator, the parser, the example schema generator,
+ * the name helper and the threads that http documents are downloaded on.
+ * Each request gets its own {@link RuleFactory}, {@link SchemaStore},
+ * {@link JCodeModel}, content resolver (used for <code>$ref</code>
+ * documents) and {@link TypeClassificationCache}, so class names chosen for
+ * one request never depend on another, documents are fetched (or
+ * revalidated, see {@link GenerationConfig#getHttpCacheDirectory()}) afresh
+ * for each request, and nothing a request has looked up is kept once it is
+ * done.
+ * <p>
+ * Content is a schema, or for the json/yaml source types (see
+ * {@link GenerationConfig#getSourceType()}) an example, and may be given as
+ * a parsed tree, bytes or a stream.
+ */
+public class GenerationEngine {
+
+    private final GenerationConfig config;
+    private final RuleLogger logger;
+    private final Annotator annotator;
+    private final ObjectMapper objectMapper;
+    private final SchemaGenerator schemaGenerator;
+    private final ExecutorService httpExecutor;
+    private final NameHelper nameHelper;
+
+    /**
+     * @param config
+     *            the configuration options that control code generation for
+     *            every request
+     * @param logger
+     *            the logger rules report to (must be thread safe)
+     */
+    public GenerationEngine(GenerationConfig config, RuleLogger logger) {
+        this.config = config;
+        this.logger = logger;
+        this.annotator = Jsonschema2Pojo.getAnnotator(config);
+        this.objectMapper = new ObjectMapper(isYaml(config) ? new YAMLFactory() : null)
+                .enable(JsonParser.Feature.ALLOW_COMMENTS)
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.schemaGenerator = Jsonschema2Pojo.createSchemaGenerator(config);
+        this.httpExecutor = HttpContentFetcher.createExecutor(config.getHttpFetchThreads());
+        this.nameHelper = new NameHelper(config);
+    }
+
+    private static boolean isYaml(GenerationConfig config) {
+        return config.getSourceType() == SourceType.YAMLSCHEMA || config.getSourceType() == SourceType.YAML;
+    }
+
+    private static boolean isExample(GenerationConfig config) {
+        return config.getSourceType() == SourceType.JSON || config.getSourceType() == SourceType.YAML;
+    }
+
+    /**
+     * Adds the types generated from the given content to a code model.
+     *
+     * @param codeModel
+     *            the code model to add types to, which must only be used by
+     *            one request at a time
+     * @param className
+     *            the name of the top-most type
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param content
+     *            the schema or example
+     * @return the top-most type generated
+     */
+    public JType generate(JCodeModel codeModel, String className, String packageName, JsonNode content) {
+        return generate(codeModel, className, packageName, content, null);
+    }
+
+    /**
+     * Adds the types generated from the given content to a code model.
+     *
+     * @param codeModel
+     *            the code model to add types to, which must only be used by
+     *            one request at a time
+     * @param className
+     *            the name of the top-most type
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param content
+     *            the schema or example
+     * @param location
+     *            the location of the content, against which relative
+     *            <code>$ref</code> paths are resolved, or <code>null</code>
+     * @return the top-most type generated
+     */
+    public JType generate(JCodeModel codeModel, String className, String packageName, JsonNode content, URI location) {
+        ObjectNode schema;
+        if (isExample(config)) {
+            schema = schemaGenerator.schemaFromExample(content);
+        } else if (content instanceof ObjectNode) {
+            schema = (ObjectNode) content;
+        } else {
+            throw new IllegalArgumentException("A schema must be a JSON object, not " + content.getNodeType());
+        }
+
+        return createRuleFactory().getSchemaRule().apply(className, schema, null, codeModel._package(packageName), new Schema(location, schema, null));
+    }
+
+    /**
+     * Generates types from the given content and returns the generated files
+     * (see {@link InMemoryCodeWriter#getFiles()}), without writing anything
+     * to disk.
+     *
+     * @param className
+     *            the name of the top-most type
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param content
+     *            the schema or example
+     * @return the content of each generated file, keyed by path
+     * @throws IOException
+     *             if the files can't be rendered
+     */
+    public Map<String, byte[]> generateSources(String className, String packageName, JsonNode content) throws IOException {
+        return generateSources(className, packageName, content, null);
+    }
+
+    /**
+     * Generates types from the given content and returns the generated files
+     * (see {@link InMemoryCodeWriter#getFiles()}), without writing anything
+     * to disk.
+     *
+     * @param className
+     *            the name of the top-most type
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param content
+     *            the schema or example
+     * @param location
+     *            the location of the content, against which relative
+     *            <code>$ref</code> paths are resolved, or <code>null</code>
+     * @return the content of each generated file, keyed by path
+     * @throws IOException
+     *             if the files can't be rendered
+     */
+    public Map<String, byte[]> generateSources(String className, String packageName, JsonNode content, URI location) throws IOException {
+        JCodeModel codeModel = new JCodeModel();
+        generate(codeModel, className, packageName, content, location);
+        return render(codeModel);
+    }
+
+    /**
+     * Renders the files of a code model into memory.
+     *
+     * @param codeModel
+     *            the code model types have been generated into
+     * @return the content of each file, keyed by path (see
+     *         {@link InMemoryCodeWriter#getFiles()})
+     * @throws IOException
+     *             if the files can't be rendered
+     */
+    public Map<String, byte[]> render(JCodeModel codeModel) throws IOException {
+        InMemoryCodeWriter codeWriter = new InMemoryCodeWriter(config.getOutputEncoding());
+        codeModel.build(SizeLimitedCodeWriter.of(codeWriter, config.getOutputEncoding(), config.getMaxSourceBytes()), codeWriter);
+        return codeWriter.getFiles();
+    }
+
+    /**
+     * @see #generateSources(String, String, JsonNode)
+     * @throws IOException
+     *             if the content can't be parsed
+     */
+    public Map<String, byte[]> generateSources(String className, String packageName, byte[] content) throws IOException {
+        return generateSources(className, packageName, objectMapper.readTree(content));
+    }
+
+    /**
+     * @see #generateSources(String, String, JsonNode)
+     * @throws IOException
+     *             if the content can't be read or parsed
+     */
+    public Map<String, byte[]> generateSources(String className, String packageName, InputStream content) throws IOException {
+        return generateSources(className, packageName, objectMapper.readTree(content));
+    }
+
+    private RuleFactory createRuleFactory() {
+        RuleFactory ruleFactory = Jsonschema2Pojo.createRuleFactory(config);
+        ruleFactory.setAnnotator(annotator);
+        ruleFactory.setGenerationConfig(config);
+        ruleFactory.setLogger(logger);
+        ruleFactory.setSchemaStore(new SchemaStore(createContentResolver()));
+        ruleFactory.setNameHelper(nameHelper);
+        ruleFactory.setTypeClassificationCache(new TypeClassificationCache());
+        return ruleFactory;
+    }
+
+    private ContentResolver createContentResolver() {
+        HttpContentFetcher httpContentFetcher = new HttpContentFetcher(config.getHttpConnectTimeout(), config.getHttpReadTimeout(), config.getHttpCacheDirectory(), httpExecutor);
+        return Jsonschema2Pojo.createContentResolver(config, httpContentFetcher);
+    }
+
+    public GenerationConfig getGenerationConfig() {
+        return config;
+    }
+
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.huabao.jsonschema2pojo.exception.GenerationException;
+import org.huabao.jsonschema2pojo.util.Fingerprints;
+import org.huabao.jsonschema2pojo.util.SchemaReferences;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Records, for each source that was generated, a content hash of the source
+ * document and every document it (transitively) refers to, along with the
+ * classes that were generated from it. Used by incremental generation (see
+ * {@link GenerationConfig#isIncrementalGeneration()}) to decide which sources
+ * must be generated again.
+ */
+public class GenerationManifest {
+
+    /**
+     * The name of the manifest file written to the target directory.
+     */
+    public static final String FILE_NAME = ".jsonschema2pojo-manifest.json";
+
+    private static final String MISSING_DOCUMENT = "";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String configFingerprint;
+
+    private final Map<String, Entry> sources = new TreeMap<>();
+
+    public GenerationManifest(String configFingerprint) {
+        this.configFingerprint = configFingerprint;
+    }
+
+    /**
+     * Reads the manifest previously written to the given directory.
+     *
+     * @param targetDirectory
+     *            the directory the manifest was written to
+     * @return the manifest, or <code>null</code> if no (readable) manifest
+     *         exists
+     */
+    public static GenerationManifest read(File targetDirectory) {
+        File file = new File(targetDirectory, FILE_NAME);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            JsonNode content = OBJECT_MAPPER.readTree(file);
+            GenerationManifest manifest = new GenerationManifest(content.path("configFingerprint").asText());
+
+            for (Iterator<Map.Entry<String, JsonNode>> sources = content.path("sources").fields(); sources.hasNext();) {
+                Map.Entry<String, JsonNode> source = sources.next();
+
+                Map<String, String> documents = new TreeMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> hashes = source.getValue().path("documents").fields(); hashes.hasNext();) {
+                    Map.Entry<String, JsonNode> hash = hashes.next();
+                    documents.put(hash.getKey(), hash.getValue().asText());
+                }
+
+                Set<String> classes = new TreeSet<>();
+                for (JsonNode className : source.getValue().path("classes")) {
+                    classes.add(className.asText());
+                }
+
+                manifest.sources.put(source.getKey(), new Entry(documents, classes));
+            }
+
+            return manifest;
+        } catch (IOException e) {
+            // an unreadable manifest is treated as a missing one, everything is generated again
+            return null;
+        }
+    }
+
+    /**
+     * Writes this manifest to the given directory.
+     *
+     * @param targetDirectory
+     *            the directory to write the manifest to
+     */
+    public void write(File targetDirectory) {
+        ObjectNode content = OBJECT_MAPPER.createObjectNode();
+        content.put("configFingerprint", configFingerprint);
+
+        ObjectNode sourcesNode = content.putObject("sources");
+        for (Map.Entry<String, Entry> source : sources.entrySet()) {
+            ObjectNode sourceNode = sourcesNode.putObject(source.getKey());
+
+            ObjectNode documentsNode = sourceNode.putObject("documents");
+            for (Map.Entry<String, String> document : source.getValue().getDocuments().entrySet()) {
+                documentsNode.put(document.getKey(), document.getValue());
+            }
+
+            for (String className : source.getValue().getClasses()) {
+                sourceNode.withArray("classes").add(className);
+            }
+        }
+
+        try {
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(new File(targetDirectory, FILE_NAME), content);
+        } catch (IOException e) {
+            throw new GenerationException("Could not write generation manifest to " + targetDirectory.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Hashes the given document and, when <code>followReferences</code> is set,
+     * every document it transitively refers to using <code>$ref</code>.
+     * Documents that cannot be read are recorded with an empty hash, so that
+     * they are considered changed once they can be read.
+     *
+     * @param contentResolver
+     *            the resolver used to read each document
+     * @param document
+     *            the source document
+     * @param followReferences
+     *            whether the document is a schema whose references should be
+     *            followed
+     * @return the content hash of each document, keyed by its URI
+     */
+    public static Map<String, String> hash(ContentResolver contentResolver, URI document, boolean followReferences) {
+        Map<String, String> documents = new TreeMap<>();
+
+        Deque<URI> pending = new ArrayDeque<>();
+        pending.add(document.normalize());
+
+        while (!pending.isEmpty()) {
+            URI uri = pending.poll();
+            if (documents.containsKey(uri.toString())) {
+                continue;
+            }
+
+            byte[] content;
+            try {
+                content = contentResolver.read(uri);
+            } catch (IllegalArgumentException e) {
+                documents.put(uri.toString(), MISSING_DOCUMENT);
+                continue;
+            }
+            documents.put(uri.toString(), Fingerprints.of(content));
+
+            if (followReferences) {
+                try {
+                    pending.addAll(SchemaReferences.documentReferences(uri, contentResolver.parse(uri, content)));
+                } catch (IllegalArgumentException e) {
+                    // unparseable content is reported when the source is generated
+                }
+            }
+        }
+
+        return documents;
+    }
+
+    public String getConfigFingerprint() {
+        return configFingerprint;
+    }
+
+    public Set<String> getSources() {
+        return Collections.unmodifiableSet(sources.keySet());
+    }
+
+    public Map<String, String> getDocuments(String source) {
+        Entry entry = sources.get(source);
+        return entry == null ? null : entry.getDocuments();
+    }
+
+    public Set<String> getClasses(String source) {
+        Entry entry = sources.get(source);
+        return entry == null ? Collections.<String> emptySet() : entry.getClasses();
+    }
+
+    public void put(String source, Map<String, String> documents, Collection<String> classes) {
+        sources.put(source, new Entry(new TreeMap<>(documents), new TreeSet<>(classes)));
+    }
+
+    private static final class Entry {
+
+        private final Map<String, String> documents;
+        private final Set<String> classes;
+
+        Entry(Map<String, String> documents, Set<String> classes) {
+            this.documents = Collections.unmodifiableMap(documents);
+            this.classes = Collections.unmodifiableSet(classes);
+        }
+
+        Map<String, String> getDocuments() {
+            return documents;
+        }
+
+        Set<String> getClasses() {
+            return classes;
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.huabao.codemodel.JCodeModel;
+import org.huabao.jsonschema2pojo.exception.GenerationCancelledException;
+import org.huabao.jsonschema2pojo.util.GenerationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Generates sources asynchronously, on a fixed number of worker threads, using
+ * a {@link GenerationEngine}.
+ * <p>
+ * Requests wait in a bounded queue for a free worker. When the queue is full,
+ * new requests are turned away straight away (their result fails with a
+ * {@link RejectedExecutionException}) so that callers can back off, rather
+ * than piling up. Each request may have a deadline, counted from when it was
+ * submitted: once it passes, the result fails with a
+ * {@link GenerationCancelledException} and generation stops the next time a
+ * schema or object is about to be generated, freeing the worker. Cancelling
+ * the result stops generation in the same way. The partly generated code
+ * model of a request that stops early is simply dropped.
+ */
+public class GenerationService implements AutoCloseable {
+
+    private final GenerationEngine engine;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService deadlines;
+
+    /**
+     * @param engine
+     *            the engine that generates sources for each request
+     * @param threads
+     *            the number of requests generated at once
+     * @param queueCapacity
+     *            the number of requests that may wait for a worker
+     */
+    public GenerationService(GenerationEngine engine, int threads, int queueCapacity) {
+        this.engine = engine;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), daemonThreads("jsonschema2pojo-generation-"));
+        ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, daemonThreads("jsonschema2pojo-deadlines-"));
+        // the expiry of a finished request must not keep its sources queued until the deadline
+        deadlines.setRemoveOnCancelPolicy(true);
+        this.deadlines = deadlines;
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Submits a request without a deadline.
+     *
+     * @see #submit(String, String, JsonNode, URI, long, TimeUnit)
+     */
+    public CompletableFuture<Map<String, byte[]>> submit(String className, String packageName, JsonNode content) {
+        return submit(className, packageName, content, null, 0, null);
+    }
+
+    /**
+     * Submits a request to generate sources from the given content (see
+     * {@link GenerationEngine#generateSources(String, String, JsonNode, URI)}).
+     *
+     * @param className
+     *            the name of the top-most type
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param content
+     *            the schema or example
+     * @param location
+     *            the location of the content, against which relative
+     *            <code>$ref</code> paths are resolved, or <code>null</code>
+     * @param timeout
+     *            the time, from now, the request has to finish, or
+     *            <code>0</code> for no deadline
+     * @param unit
+     *            the unit of the timeout
+     * @return the generated sources, once generated. Cancelling the result
+     *         stops generation.
+     */
+    public CompletableFuture<Map<String, byte[]>> submit(String className, String packageName, JsonNode content, URI location, long timeout, TimeUnit unit) {
+        JCodeModel codeModel = new JCodeModel();
+        GenerationContext context = GenerationContext.of(codeModel);
+
+        CompletableFuture<Map<String, byte[]>> result = new CompletableFuture<Map<String, byte[]>>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                context.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+
+        if (timeout > 0) {
+            context.setDeadline(System.nanoTime() + unit.toNanos(timeout));
+        }
+
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    // cancelled or expired while queued
+                    return;
+                }
+                try {
+                    engine.generate(codeModel, className, packageName, content, location);
+                    context.checkCancelled(className);
+                    result.complete(engine.render(codeModel));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+
+            if (timeout > 0) {
+                ScheduledFuture<?> expiry = deadlines.schedule(() -> {
+                    context.cancel();
+                    result.completeExceptionally(new GenerationCancelledException("Generation of " + className + " ran past its deadline", true));
+                }, timeout, unit);
+                result.whenComplete((sources, failure) -> expiry.cancel(false));
+            }
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                result.completeExceptionally(new RejectedExecutionException("The generation service has been closed", e));
+            } else {
+                result.completeExceptionally(new RejectedExecutionException("Too many generation requests are waiting, try again later", e));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the number of requests waiting for a worker
+     */
+    public int getQueuedRequests() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting requests; the result of any request submitted later
+     * fails with a {@link RejectedExecutionException}. Requests already
+     * submitted are still generated.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        deadlines.shutdown();
+    }
+
+}
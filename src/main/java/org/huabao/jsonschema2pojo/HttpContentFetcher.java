@@ -0,0 +1,298 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.huabao.jsonschema2pojo.exception.GenerationException;
+import org.huabao.jsonschema2pojo.util.Fingerprints;
+
+/**
+ * Downloads http/https documents for a {@link ContentResolver}.
+ * <p>
+ * Each document is downloaded at most once per fetcher, and kept in memory
+ * for as long as the fetcher, so a fetcher is meant to serve a single
+ * generation run (like the {@link SchemaStore} that holds the parsed
+ * documents): a fetcher that is kept for longer never sees documents change,
+ * and holds every document it has downloaded. Each run should use a new
+ * fetcher, which revalidates the documents kept in the cache directory (see
+ * below) rather than downloading them again; fetchers that are created often
+ * can share one executor to download on. Documents can be requested
+ * ahead of time (see {@link #prefetch(URI)}) so that independent
+ * references are downloaded concurrently rather than one at a time. Response
+ * bodies are always read to the end and closed, so that the JDK's keep-alive
+ * cache can reuse connections to the same server.
+ * <p>
+ * When a cache directory is given, every response is kept there along with
+ * its <code>ETag</code> and <code>Last-Modified</code> headers. Later
+ * downloads of the same document are sent as conditional requests, and a
+ * <code>304 Not Modified</code> response is answered from the cache. If the
+ * server cannot be reached at all, the cached copy is used.
+ */
+public class HttpContentFetcher {
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final File cacheDirectory;
+
+    private final ConcurrentMap<URI, CompletableFuture<byte[]>> documents = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * @param connectTimeout
+     *            the connect timeout, in milliseconds
+     * @param readTimeout
+     *            the read timeout, in milliseconds
+     * @param cacheDirectory
+     *            the directory in which responses are kept for revalidation,
+     *            or <code>null</code> to keep nothing between runs
+     * @param threads
+     *            the maximum number of documents downloaded concurrently
+     *            (values below <code>1</code> are treated as <code>1</code>)
+     */
+    public HttpContentFetcher(int connectTimeout, int readTimeout, File cacheDirectory, int threads) {
+        this(connectTimeout, readTimeout, cacheDirectory, createExecutor(threads));
+    }
+
+    /**
+     * @param connectTimeout
+     *            the connect timeout, in milliseconds
+     * @param readTimeout
+     *            the read timeout, in milliseconds
+     * @param cacheDirectory
+     *            the directory in which responses are kept for revalidation,
+     *            or <code>null</code> to keep nothing between runs
+     * @param executor
+     *            the executor documents are downloaded on, which may be
+     *            shared by many fetchers
+     */
+    public HttpContentFetcher(int connectTimeout, int readTimeout, File cacheDirectory, ExecutorService executor) {
+        if (cacheDirectory != null && !cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            throw new GenerationException("Could not create or access cache directory " + cacheDirectory.getAbsolutePath());
+        }
+
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.cacheDirectory = cacheDirectory;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates an executor for downloads, whose threads are daemon threads that
+     * stop once they have been idle for a while.
+     *
+     * @param threads
+     *            the maximum number of documents downloaded concurrently
+     *            (values below <code>1</code> are treated as <code>1</code>)
+     * @return the executor
+     */
+    static ExecutorService createExecutor(int threads) {
+        int poolSize = Math.max(1, threads);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "jsonschema2pojo-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public static boolean isHttp(URI uri) {
+        return "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+    }
+
+    /**
+     * Starts downloading the given document in the background, unless it has
+     * already been requested.
+     *
+     * @param uri
+     *            the http/https URI of the document
+     */
+    public void prefetch(URI uri) {
+        if (!documents.containsKey(uri)) {
+            CompletableFuture<byte[]> document = new CompletableFuture<>();
+            if (documents.putIfAbsent(uri, document) == null) {
+                executor.execute(() -> download(uri, document));
+            }
+        }
+    }
+
+    /**
+     * Returns the content of the given document, waiting for a download that
+     * is already in progress or downloading it on the calling thread.
+     *
+     * @param uri
+     *            the http/https URI of the document
+     * @return the content of the document
+     * @throws IOException
+     *             if the document cannot be downloaded
+     */
+    public byte[] fetch(URI uri) throws IOException {
+        CompletableFuture<byte[]> document = documents.get(uri);
+        if (document == null) {
+            CompletableFuture<byte[]> newDocument = new CompletableFuture<>();
+            document = documents.putIfAbsent(uri, newDocument);
+            if (document == null) {
+                document = newDocument;
+                download(uri, newDocument);
+            }
+        }
+
+        try {
+            return document.join();
+        } catch (CompletionException e) {
+            documents.remove(uri, document);
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to download " + uri, e.getCause());
+        }
+    }
+
+    private void download(URI uri, CompletableFuture<byte[]> document) {
+        try {
+            document.complete(download(uri));
+        } catch (IOException | RuntimeException e) {
+            document.completeExceptionally(e);
+        }
+    }
+
+    private byte[] download(URI uri) throws IOException {
+        File body = cacheFile(uri, ".body");
+        File metadata = cacheFile(uri, ".properties");
+        Properties validators = readValidators(body, metadata);
+
+        HttpURLConnection connection;
+        int status;
+        try {
+            URLConnection urlConnection = uri.toURL().openConnection();
+            if (!(urlConnection instanceof HttpURLConnection)) {
+                throw new IOException("Not an http/https URI: " + uri);
+            }
+            connection = (HttpURLConnection) urlConnection;
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
+            if (validators.getProperty(ETAG) != null) {
+                connection.setRequestProperty("If-None-Match", validators.getProperty(ETAG));
+            }
+            if (validators.getProperty(LAST_MODIFIED) != null) {
+                connection.setRequestProperty("If-Modified-Since", validators.getProperty(LAST_MODIFIED));
+            }
+            status = connection.getResponseCode();
+        } catch (IOException e) {
+            if (!validators.isEmpty()) {
+                // the server can't be reached, the last copy we saw is the best we have
+                return Files.readAllBytes(body.toPath());
+            }
+            throw e;
+        }
+
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && !validators.isEmpty()) {
+            drain(connection);
+            return Files.readAllBytes(body.toPath());
+        }
+
+        if (status / 100 != 2) {
+            drain(connection);
+            throw new IOException("Server returned HTTP response code " + status + " for " + uri);
+        }
+
+        byte[] content;
+        try (InputStream in = connection.getInputStream()) {
+            content = IOUtils.toByteArray(in);
+        }
+
+        writeCache(body, metadata, content, connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+        return content;
+    }
+
+    private static void drain(HttpURLConnection connection) {
+        try (InputStream in = connection.getErrorStream() != null ? connection.getErrorStream() : connection.getInputStream()) {
+            IOUtils.skip(in, Long.MAX_VALUE);
+        } catch (IOException e) {
+            // nothing left to reuse
+        }
+    }
+
+    private File cacheFile(URI uri, String suffix) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        return new File(cacheDirectory, Fingerprints.of(uri.toString().getBytes(StandardCharsets.UTF_8)) + suffix);
+    }
+
+    private static Properties readValidators(File body, File metadata) {
+        Properties validators = new Properties();
+        if (body != null && body.isFile() && metadata.isFile()) {
+            try (InputStream in = new FileInputStream(metadata)) {
+                validators.load(in);
+            } catch (IOException e) {
+                validators.clear();
+            }
+        }
+        return validators;
+    }
+
+    private void writeCache(File body, File metadata, byte[] content, String etag, String lastModified) {
+        if (body == null) {
+            return;
+        }
+
+        Properties validators = new Properties();
+        if (etag != null) {
+            validators.setProperty(ETAG, etag);
+        }
+        if (lastModified != null) {
+            validators.setProperty(LAST_MODIFIED, lastModified);
+        }
+
+        try {
+            // validators are removed first so they never describe a partially written body
+            Files.deleteIfExists(metadata.toPath());
+            Files.write(body.toPath(), content);
+            try (OutputStream out = new FileOutputStream(metadata)) {
+                validators.store(out, null);
+            }
+        } catch (IOException e) {
+            // the cache is only an optimisation, the document is downloaded again next time
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.huabao.codemodel.CodeWriter;
+import org.huabao.codemodel.JPackage;
+
+/**
+ * A writer that keeps the files built from a code model in memory instead of
+ * writing them to disk. Each file is keyed by its path relative to the
+ * output directory (using <code>/</code> as separator, e.g.
+ * <code>com/example/Foo.java</code>). Java sources are encoded the same way
+ * {@link FileCodeWriterWithEncoding} encodes them.
+ */
+public class InMemoryCodeWriter extends CodeWriter {
+
+    private final String sourceEncoding;
+
+    private final ConcurrentMap<String, byte[]> files = new ConcurrentHashMap<>();
+
+    public InMemoryCodeWriter() {
+        this(StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * @param encoding
+     *            the character encoding of source files
+     */
+    public InMemoryCodeWriter(String encoding) {
+        this.sourceEncoding = encoding;
+    }
+
+    @Override
+    public OutputStream openBinary(JPackage pkg, String fileName) {
+        String path = pkg.isUnnamed() ? fileName : pkg.name().replace('.', '/') + '/' + fileName;
+
+        return new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                files.put(path, toByteArray());
+            }
+        };
+    }
+
+    @Override
+    public Writer openSource(JPackage pkg, String fileName) throws IOException {
+        return FileCodeWriterWithEncoding.openSource(openBinary(pkg, fileName), sourceEncoding);
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+    /**
+     * @return the content of each file written so far, keyed by path and
+     *         sorted by path
+     */
+    public Map<String, byte[]> getFiles() {
+        return Collections.unmodifiableMap(new TreeMap<>(files));
+    }
+
+}
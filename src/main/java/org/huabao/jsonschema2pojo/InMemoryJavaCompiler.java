@@ -0,0 +1,287 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.huabao.jsonschema2pojo.exception.GenerationException;
+
+/**
+ * Compiles generated sources (see {@link InMemoryCodeWriter}) to classes
+ * without writing anything to disk, using the system Java compiler. One
+ * compiler and one file manager are kept for the life of this object, and the
+ * classpath is set on the file manager once, so the classpath (and the
+ * contents of every jar on it) is only indexed once and later compilations
+ * are much faster than the first. Compilations are run one at a time, since
+ * the file manager isn't thread safe. The file manager keeps the jars on the
+ * classpath open until the compiler is closed.
+ * <p>
+ * Requires a JDK (not just a JRE) at runtime.
+ */
+public class InMemoryJavaCompiler implements AutoCloseable {
+
+    private final JavaCompiler compiler;
+
+    private final StandardJavaFileManager fileManager;
+
+    private final List<String> options;
+
+    private final ClassLoader parentClassLoader;
+
+    /**
+     * Creates a compiler that compiles against the classpath of this JVM
+     * (the <code>java.class.path</code> system property), and loads classes
+     * with the context class loader as parent.
+     */
+    public InMemoryJavaCompiler() {
+        this(classPath(), Collections.<String> emptyList(), Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * @param classPath
+     *            the jars and directories to compile against (must include
+     *            every library the generated sources use, including
+     *            annotation processors such as Lombok)
+     * @param options
+     *            any other compiler options, e.g. <code>-parameters</code>
+     * @param parentClassLoader
+     *            the parent of the class loaders that load compiled classes
+     *            (see {@link #load(Map)}), which must be able to load the
+     *            same libraries
+     */
+    public InMemoryJavaCompiler(List<File> classPath, List<String> options, ClassLoader parentClassLoader) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (this.compiler == null) {
+            throw new GenerationException("No Java compiler is available, in-process compilation needs a JDK rather than a JRE");
+        }
+        this.fileManager = compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8);
+        try {
+            fileManager.setLocation(StandardLocation.CLASS_PATH, classPath);
+        } catch (IOException e) {
+            throw new GenerationException("Unable to use classpath " + classPath, e);
+        }
+        this.options = new ArrayList<>(options);
+        this.parentClassLoader = parentClassLoader;
+    }
+
+    private static List<File> classPath() {
+        List<File> classPath = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                classPath.add(new File(entry));
+            }
+        }
+        return classPath;
+    }
+
+    /**
+     * Compiles the given sources.
+     *
+     * @param sources
+     *            the content of each source file, encoded as UTF-8 and keyed
+     *            by its path (e.g. <code>com/example/Foo.java</code>), as
+     *            returned by {@link InMemoryCodeWriter#getFiles()}. Files that
+     *            aren't Java sources are ignored.
+     * @return the bytecode of each compiled class, keyed by its binary name
+     *         (e.g. <code>com.example.Foo$Bar</code>)
+     * @throws GenerationException
+     *             if the sources don't compile
+     */
+    public Map<String, byte[]> compile(Map<String, byte[]> sources) {
+        List<JavaFileObject> compilationUnits = new ArrayList<>();
+        for (Map.Entry<String, byte[]> source : sources.entrySet()) {
+            if (source.getKey().endsWith(JavaFileObject.Kind.SOURCE.extension)) {
+                compilationUnits.add(new SourceFile(source.getKey(), new String(source.getValue(), StandardCharsets.UTF_8)));
+            }
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        ClassFileManager classFileManager = new ClassFileManager(fileManager);
+
+        boolean compiled;
+        synchronized (fileManager) {
+            try {
+                compiled = compiler.getTask(null, classFileManager, diagnostics, options, null, compilationUnits).call();
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // invalid options, or a failure in the compiler or an annotation processor
+                throw new GenerationException("Unable to compile generated sources", e);
+            }
+        }
+
+        if (!compiled) {
+            StringBuilder message = new StringBuilder("Generated sources failed to compile:");
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    message.append(System.lineSeparator())
+                            .append(diagnostic.getSource() == null ? "" : diagnostic.getSource().getName() + ":" + diagnostic.getLineNumber() + ": ")
+                            .append(diagnostic.getMessage(Locale.ROOT));
+                }
+            }
+            throw new GenerationException(message.toString());
+        }
+
+        return classFileManager.getClasses();
+    }
+
+    /**
+     * Compiles the given sources and loads the compiled classes, in a new
+     * class loader.
+     *
+     * @param sources
+     *            the content of each source file (see {@link #compile(Map)})
+     * @return each compiled class, keyed by its binary name
+     * @throws GenerationException
+     *             if the sources don't compile
+     */
+    public Map<String, Class<?>> load(Map<String, byte[]> sources) {
+        Map<String, byte[]> classFiles = compile(sources);
+        ClassLoader classLoader = new CompiledClassLoader(parentClassLoader, classFiles);
+
+        Map<String, Class<?>> classes = new TreeMap<>();
+        for (String className : classFiles.keySet()) {
+            try {
+                classes.put(className, Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                throw new GenerationException("Unable to load compiled class " + className, e);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Closes the file manager, releasing the jars on the classpath.
+     *
+     * @throws IOException
+     *             if the file manager can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (fileManager) {
+            fileManager.close();
+        }
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String content;
+
+        SourceFile(String path, String content) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        ClassFile(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return content;
+        }
+    }
+
+    /**
+     * Keeps compiled classes in memory, and reads everything else through
+     * the (shared) standard file manager.
+     */
+    private static final class ClassFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final ConcurrentMap<String, ClassFile> classFiles = new ConcurrentHashMap<>();
+
+        ClassFileManager(JavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+            if (kind != JavaFileObject.Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+            ClassFile classFile = new ClassFile(className);
+            classFiles.put(className, classFile);
+            return classFile;
+        }
+
+        @Override
+        public void close() {
+            // the standard file manager is kept open for the next compilation
+        }
+
+        Map<String, byte[]> getClasses() {
+            Map<String, byte[]> classes = new TreeMap<>();
+            for (Map.Entry<String, ClassFile> classFile : classFiles.entrySet()) {
+                classes.put(classFile.getKey(), classFile.getValue().content.toByteArray());
+            }
+            return Collections.unmodifiableMap(classes);
+        }
+    }
+
+    private static final class CompiledClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classFiles;
+
+        CompiledClassLoader(ClassLoader parent, Map<String, byte[]> classFiles) {
+            super(parent);
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] classFile = classFiles.get(name);
+            if (classFile == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+
+}
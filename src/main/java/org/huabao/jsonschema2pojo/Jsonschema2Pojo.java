@@ -22,23 +22,40 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FilenameUtils;
 import org.huabao.jsonschema2pojo.exception.GenerationException;
 import org.huabao.jsonschema2pojo.rules.RuleFactory;
+import org.huabao.jsonschema2pojo.util.Fingerprints;
 import org.huabao.jsonschema2pojo.util.NameHelper;
+import org.huabao.jsonschema2pojo.util.TypeClassificationCache;
 import org.huabao.jsonschema2pojo.util.URLUtil;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import org.huabao.codemodel.CodeWriter;
+import org.huabao.codemodel.JClassAlreadyExistsException;
 import org.huabao.codemodel.JCodeModel;
+import org.huabao.codemodel.JDefinedClass;
+import org.huabao.codemodel.JPackage;
 
 public class Jsonschema2Pojo {
     /**
@@ -60,52 +77,249 @@ public class Jsonschema2Pojo {
         ruleFactory.setAnnotator(annotator);
         ruleFactory.setGenerationConfig(config);
         ruleFactory.setLogger(logger);
-        ruleFactory.setSchemaStore(new SchemaStore(createContentResolver(config)));
 
-        SchemaMapper mapper = new SchemaMapper(ruleFactory, createSchemaGenerator(config));
+        boolean corpus = config.isExampleCorpus() && (config.getSourceType() == SourceType.JSON || config.getSourceType() == SourceType.YAML);
+        boolean incremental = config.isIncrementalGeneration() && !corpus && !config.isDeduplicateInlineTypes();
+
+        ContentResolver contentResolver = createContentResolver(config);
+        if (incremental) {
+            // documents are hashed before types are generated from them, and must not change in between
+            contentResolver = new SnapshotContentResolver(contentResolver);
+        }
+        ruleFactory.setSchemaStore(config.getGenerationThreads() > 1 ? new ConcurrentSchemaStore(contentResolver) : new SchemaStore(contentResolver));
+
+        SchemaGenerator schemaGenerator = createSchemaGenerator(config);
+        SchemaMapper mapper = new SchemaMapper(ruleFactory, schemaGenerator);
 
         JCodeModel codeModel = new JCodeModel();
 
-        if (config.isRemoveOldOutput()) {
+        if (config.isRemoveOldOutput() && !incremental) {
             removeOldOutput(config.getTargetDirectory());
         }
 
+        List<SourceFile> sourceFiles = new ArrayList<>();
         for (Iterator<URL> sources = config.getSource(); sources.hasNext();) {
             URL source = sources.next();
 
-            if (URLUtil.parseProtocol(source.toString()) == URLProtocol.FILE && URLUtil.getFileFromURL(source).isDirectory()) {
-                generateRecursive(config, mapper, codeModel, defaultString(config.getTargetPackage()), Arrays.asList(URLUtil.getFileFromURL(source).listFiles(config.getFileFilter())));
+            if (corpus) {
+                // the whole source (even a directory) is read as a single corpus of examples
+                sourceFiles.add(new SourceFile(source, getNodeName(removeEnd(source.toString(), "/"), config), defaultString(config.getTargetPackage())));
+            } else if (URLUtil.parseProtocol(source.toString()) == URLProtocol.FILE && URLUtil.getFileFromURL(source).isDirectory()) {
+                collectRecursive(config, defaultString(config.getTargetPackage()), Arrays.asList(URLUtil.getFileFromURL(source).listFiles(config.getFileFilter())), sourceFiles);
             } else {
-                mapper.generate(codeModel, getNodeName(source, config), defaultString(config.getTargetPackage()), source);
+                sourceFiles.add(new SourceFile(source, getNodeName(source, config), defaultString(config.getTargetPackage())));
             }
         }
 
+        if (incremental) {
+            generateIncrementally(config, logger, mapper, schemaGenerator, contentResolver, codeModel, sourceFiles);
+        } else {
+            generate(config, mapper, codeModel, sourceFiles, null, null);
+            build(config, logger, codeModel);
+        }
+
+        if (logger.isDebugEnabled()) {
+            TypeClassificationCache typeClassificationCache = ruleFactory.getTypeClassificationCache();
+            logger.debug("Type classification cache: " + typeClassificationCache.getHits() + " hits, " + typeClassificationCache.getMisses() + " misses");
+        }
+    }
+
+    private static void build(GenerationConfig config, RuleLogger logger, JCodeModel codeModel) throws IOException {
         if (config.getTargetDirectory().exists() || config.getTargetDirectory().mkdirs()) {
-            CodeWriter sourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding());
-            CodeWriter resourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding());
-            codeModel.build(sourcesWriter, resourcesWriter);
+            FileCodeWriterWithEncoding sourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding(), config.isWriteOnlyChangedFiles());
+            FileCodeWriterWithEncoding resourcesWriter = new FileCodeWriterWithEncoding(config.getTargetDirectory(), config.getOutputEncoding(), config.isWriteOnlyChangedFiles());
+
+            if (config.getGenerationThreads() > 1) {
+                // files are rendered on this thread, and encoded and written on the pool
+                ForkJoinPool pool = new ForkJoinPool(config.getGenerationThreads());
+                try {
+                    int maxPendingFiles = config.getGenerationThreads() * 4;
+                    codeModel.build(new ParallelCodeWriter(SizeLimitedCodeWriter.of(sourcesWriter, config.getOutputEncoding(), config.getMaxSourceBytes()), pool, maxPendingFiles), new ParallelCodeWriter(resourcesWriter, pool, maxPendingFiles));
+                } finally {
+                    pool.shutdown();
+                }
+            } else {
+                codeModel.build(SizeLimitedCodeWriter.of(sourcesWriter, config.getOutputEncoding(), config.getMaxSourceBytes()), resourcesWriter);
+            }
+
+            if (config.isWriteOnlyChangedFiles() && logger.isInfoEnabled()) {
+                int written = sourcesWriter.getWrittenFiles() + resourcesWriter.getWrittenFiles();
+                int unchanged = sourcesWriter.getUnchangedFiles() + resourcesWriter.getUnchangedFiles();
+                logger.info("Wrote " + written + " changed files, skipped " + unchanged + " unchanged files");
+            }
         } else {
             throw new GenerationException("Could not create or access target directory " + config.getTargetDirectory().getAbsolutePath());
         }
     }
+
+    /**
+     * Generates types only for the sources whose documents (or the documents
+     * they refer to) have changed since the manifest in the target directory
+     * was written. Sources that share a document with a changed or removed
+     * source are generated again too, since the classes for shared documents
+     * belong to whichever source reached them first. The class names recorded
+     * for unchanged sources are reserved in the code model (as hidden classes)
+     * so that new classes never take them, and their files are not written.
+     * Types are generated from the same content that was hashed, as the
+     * content resolver (see {@link SnapshotContentResolver}) reads each
+     * document only once.
+     */
+    private static void generateIncrementally(GenerationConfig config, RuleLogger logger, SchemaMapper mapper, SchemaGenerator schemaGenerator, ContentResolver contentResolver, JCodeModel codeModel, List<SourceFile> sourceFiles) throws IOException {
+        File targetDirectory = config.getTargetDirectory();
+        boolean followReferences = config.getSourceType() == SourceType.JSONSCHEMA || config.getSourceType() == SourceType.YAMLSCHEMA;
+
+        GenerationManifest previous = GenerationManifest.read(targetDirectory);
+        GenerationManifest manifest = new GenerationManifest(Fingerprints.of(config));
+        boolean configUnchanged = previous != null && previous.getConfigFingerprint().equals(manifest.getConfigFingerprint());
+
+        Map<String, Map<String, String>> documents = new LinkedHashMap<>();
+        Set<String> changed = new HashSet<>();
+        for (SourceFile sourceFile : sourceFiles) {
+            String source = sourceFile.getUrl().toString();
+            Map<String, String> hashes = GenerationManifest.hash(contentResolver, toURI(sourceFile.getUrl()), followReferences);
+            documents.put(source, hashes);
+
+            if (!configUnchanged || !hashes.equals(previous.getDocuments(source)) || !outputExists(targetDirectory, previous.getClasses(source))) {
+                changed.add(source);
+            }
+        }
+
+        Set<String> removed = new HashSet<>();
+        if (previous != null) {
+            removed.addAll(previous.getSources());
+            removed.removeAll(documents.keySet());
+        }
+
+        Set<String> changedDocuments = new HashSet<>();
+        for (String source : removed) {
+            changedDocuments.addAll(previous.getDocuments(source).keySet());
+        }
+        for (boolean expanded = true; expanded;) {
+            expanded = false;
+            for (String source : changed) {
+                changedDocuments.addAll(documents.get(source).keySet());
+                if (previous != null && previous.getDocuments(source) != null) {
+                    changedDocuments.addAll(previous.getDocuments(source).keySet());
+                }
+            }
+            for (Map.Entry<String, Map<String, String>> source : documents.entrySet()) {
+                if (!changed.contains(source.getKey()) && !Collections.disjoint(source.getValue().keySet(), changedDocuments)) {
+                    changed.add(source.getKey());
+                    expanded = true;
+                }
+            }
+        }
+
+        Set<String> staleClasses = new HashSet<>();
+        List<SourceFile> changedSourceFiles = new ArrayList<>();
+        for (SourceFile sourceFile : sourceFiles) {
+            String source = sourceFile.getUrl().toString();
+            if (changed.contains(source)) {
+                changedSourceFiles.add(sourceFile);
+                manifest.put(source, documents.get(source), Collections.<String> emptySet());
+                if (previous != null) {
+                    staleClasses.addAll(previous.getClasses(source));
+                }
+            } else {
+                manifest.put(source, documents.get(source), previous.getClasses(source));
+                reserve(codeModel, previous.getClasses(source));
+            }
+        }
+        for (String source : removed) {
+            staleClasses.addAll(previous.getClasses(source));
+        }
+
+        if (!changedSourceFiles.isEmpty()) {
+            List<ObjectNode> schemas = null;
+            if (!followReferences) {
+                // examples are read by the schema generator rather than the content resolver
+                schemas = new ArrayList<>(changedSourceFiles.size());
+                for (SourceFile sourceFile : changedSourceFiles) {
+                    schemas.add(schemaGenerator.schemaFromExample(contentResolver.read(toURI(sourceFile.getUrl()).normalize())));
+                }
+            }
+            generate(config, mapper, codeModel, changedSourceFiles, schemas, manifest);
+            build(config, logger, codeModel);
+        }
+
+        staleClasses.removeAll(definedClasses(codeModel));
+        for (String staleClass : staleClasses) {
+            delete(new File(targetDirectory, staleClass.replace('.', File.separatorChar) + ".java"));
+        }
+
+        if (targetDirectory.exists() || targetDirectory.mkdirs()) {
+            manifest.write(targetDirectory);
+        } else {
+            throw new GenerationException("Could not create or access target directory " + targetDirectory.getAbsolutePath());
+        }
+    }
+
+    private static boolean outputExists(File targetDirectory, Set<String> classes) {
+        for (String className : classes) {
+            if (!new File(targetDirectory, className.replace('.', File.separatorChar) + ".java").isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void reserve(JCodeModel codeModel, Set<String> classes) {
+        for (String className : classes) {
+            try {
+                codeModel._class(className).hide();
+            } catch (JClassAlreadyExistsException e) {
+                // already reserved
+            }
+        }
+    }
+
+    private static Set<String> definedClasses(JCodeModel codeModel) {
+        Set<String> classes = new HashSet<>();
+        for (Iterator<JPackage> packages = codeModel.packages(); packages.hasNext();) {
+            for (Iterator<JDefinedClass> definedClasses = packages.next().classes(); definedClasses.hasNext();) {
+                JDefinedClass definedClass = definedClasses.next();
+                if (!definedClass.isHidden()) {
+                    classes.add(definedClass.fullName());
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static URI toURI(URL url) {
+        try {
+            return url.toURI();
+        } catch (URISyntaxException e) {
+            throw new GenerationException("Unable to convert source location to a URI: " + url, e);
+        }
+    }
     
-    private static ContentResolver createContentResolver(GenerationConfig config) {
+    static ContentResolver createContentResolver(GenerationConfig config) {
+        return createContentResolver(config, new HttpContentFetcher(config.getHttpConnectTimeout(), config.getHttpReadTimeout(), config.getHttpCacheDirectory(), config.getHttpFetchThreads()));
+    }
+
+    static ContentResolver createContentResolver(GenerationConfig config, HttpContentFetcher httpContentFetcher) {
+        JsonFactory jsonFactory = null;
         if (config.getSourceType() == SourceType.YAMLSCHEMA || config.getSourceType() == SourceType.YAML) {
-            return new ContentResolver(new YAMLFactory());
+            jsonFactory = new YAMLFactory();
+        }
+
+        if (config.getContentCacheDirectory() != null) {
+            return new CachingContentResolver(jsonFactory, httpContentFetcher, config.getContentCacheDirectory(), config.getContentCacheMaxBytes());
         } else {
-            return new ContentResolver();
+            return new ContentResolver(jsonFactory, httpContentFetcher);
         }
     }
 
-    private static SchemaGenerator createSchemaGenerator(GenerationConfig config) {
+    static SchemaGenerator createSchemaGenerator(GenerationConfig config) {
         if (config.getSourceType() == SourceType.YAMLSCHEMA || config.getSourceType() == SourceType.YAML) {
-            return new SchemaGenerator(new YAMLFactory());
+            return new SchemaGenerator(new YAMLFactory(), config.isStreamingExampleInference(), config.getExampleArraySampleSize());
         } else {
-            return new SchemaGenerator();
+            return new SchemaGenerator(null, config.isStreamingExampleInference(), config.getExampleArraySampleSize());
         }
     }
 
-    private static RuleFactory createRuleFactory(GenerationConfig config) {
+    static RuleFactory createRuleFactory(GenerationConfig config) {
         Class<? extends RuleFactory> clazz = config.getCustomRuleFactory();
 
         if (!RuleFactory.class.isAssignableFrom(clazz)) {
@@ -121,19 +335,87 @@ public class Jsonschema2Pojo {
         }
     }
 
-    private static void generateRecursive(GenerationConfig config, SchemaMapper mapper, JCodeModel codeModel, String packageName, List<File> schemaFiles) throws IOException {
+    private static void collectRecursive(GenerationConfig config, String packageName, List<File> schemaFiles, List<SourceFile> sourceFiles) throws IOException {
 
         Collections.sort(schemaFiles, config.getSourceSortOrder().getComparator());
 
         for (File child : schemaFiles) {
             if (child.isFile()) {
-                mapper.generate(codeModel, getNodeName(child.toURI().toURL(), config), defaultString(packageName), child.toURI().toURL());
+                sourceFiles.add(new SourceFile(child.toURI().toURL(), getNodeName(child.toURI().toURL(), config), defaultString(packageName)));
             } else {
-                generateRecursive(config, mapper, codeModel, childQualifiedName(packageName, child.getName()), Arrays.asList(child.listFiles(config.getFileFilter())));
+                collectRecursive(config, childQualifiedName(packageName, child.getName()), Arrays.asList(child.listFiles(config.getFileFilter())), sourceFiles);
             }
         }
     }
 
+    /**
+     * Generates types for each of the given source files, in order. When more
+     * than one generation thread is configured, the source files are first read
+     * and parsed on a fork-join pool (unless only the definitions reachable
+     * from {@link GenerationConfig#getRootDefinitions()} are generated, which
+     * reads each source as it is generated); the rules are then applied to the shared
+     * code model on this thread, in the original order, so that generated class
+     * names (including any uniqueness suffixes) do not depend on the thread
+     * count. Schemas that have already been read may be given instead. When a
+     * manifest is given, the classes generated for each source file are
+     * recorded in it.
+     */
+    private static void generate(GenerationConfig config, SchemaMapper mapper, JCodeModel codeModel, List<SourceFile> sourceFiles, List<ObjectNode> schemas, GenerationManifest manifest) {
+
+        boolean reachableOnly = config.getRootDefinitions().length > 0 && (config.getSourceType() == SourceType.JSONSCHEMA || config.getSourceType() == SourceType.YAMLSCHEMA);
+
+        if (schemas == null && !reachableOnly && config.getGenerationThreads() > 1 && sourceFiles.size() > 1) {
+            schemas = prefetch(config.getGenerationThreads(), mapper, sourceFiles);
+        }
+
+        Set<String> classes = manifest == null ? null : definedClasses(codeModel);
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            SourceFile sourceFile = sourceFiles.get(i);
+            if (reachableOnly) {
+                mapper.generateReachable(codeModel, sourceFile.getPackageName(), sourceFile.getUrl(), Arrays.asList(config.getRootDefinitions()));
+            } else if (schemas != null) {
+                mapper.generate(codeModel, sourceFile.getNodeName(), sourceFile.getPackageName(), schemas.get(i));
+            } else {
+                mapper.generate(codeModel, sourceFile.getNodeName(), sourceFile.getPackageName(), sourceFile.getUrl());
+            }
+
+            if (manifest != null) {
+                Set<String> generatedClasses = definedClasses(codeModel);
+                String source = sourceFile.getUrl().toString();
+                generatedClasses.removeAll(classes);
+                manifest.put(source, manifest.getDocuments(source), generatedClasses);
+                classes.addAll(generatedClasses);
+            }
+        }
+    }
+
+    private static List<ObjectNode> prefetch(int threads, SchemaMapper mapper, List<SourceFile> sourceFiles) {
+
+        List<Callable<ObjectNode>> tasks = new ArrayList<>(sourceFiles.size());
+        for (SourceFile sourceFile : sourceFiles) {
+            tasks.add(() -> mapper.prefetch(sourceFile.getUrl()));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ObjectNode> schemas = new ArrayList<>(sourceFiles.size());
+            for (Future<ObjectNode> schema : pool.invokeAll(tasks)) {
+                schemas.add(schema.get());
+            }
+            return schemas;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerationException("Interrupted while reading source files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GenerationException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     private static String childQualifiedName(String parentQualifiedName, String childSimpleName) {
         String safeChildName = childSimpleName.replaceAll(NameHelper.ILLEGAL_CHARACTER_REGEX, "_");
         return isEmpty(parentQualifiedName) ? safeChildName : parentQualifiedName + "." + safeChildName;
@@ -157,7 +439,7 @@ public class Jsonschema2Pojo {
         f.delete();
     }
 
-    private static Annotator getAnnotator(GenerationConfig config) {
+    static Annotator getAnnotator(GenerationConfig config) {
         AnnotatorFactory factory = new AnnotatorFactory(config);
         return factory.getAnnotator(factory.getAnnotator(config.getAnnotationStyle()), factory.getAnnotator(config.getCustomAnnotator()));
     }
@@ -194,5 +476,34 @@ public class Jsonschema2Pojo {
             throw new IllegalArgumentException(String.format("Unable to generate node name from URL: %s", filePath), e);
         }
     }
-    
+
+    /**
+     * A single source document, along with the class and package name that
+     * types generated from it will be given.
+     */
+    private static final class SourceFile {
+
+        private final URL url;
+        private final String nodeName;
+        private final String packageName;
+
+        SourceFile(URL url, String nodeName, String packageName) {
+            this.url = url;
+            this.nodeName = nodeName;
+            this.packageName = packageName;
+        }
+
+        URL getUrl() {
+            return url;
+        }
+
+        String getNodeName() {
+            return nodeName;
+        }
+
+        String getPackageName() {
+            return packageName;
+        }
+    }
+
 }
@@ -0,0 +1,179 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.huabao.codemodel.CodeWriter;
+import org.huabao.codemodel.JPackage;
+
+/**
+ * A writer that lets the code model render each file into memory and hands
+ * the rendered file to a pool of threads, which encode and write it using
+ * another writer. Rendering stays on the thread that builds the code model
+ * (the code model isn't thread safe), but encoding and writing files no
+ * longer hold it up. The files written are the same as if the other writer
+ * was used directly.
+ * <p>
+ * The other writer must allow files to be opened and written from several
+ * threads at once. To bound the memory used, rendering waits while too many
+ * rendered files are waiting to be written. Once a file has failed to be
+ * written no more files are handed over, and the failure is thrown from the
+ * next file opened or from {@link #close()}, which waits for every file to be
+ * written. Unchecked failures (such as an exceeded budget, see
+ * {@link SizeLimitedCodeWriter}) are thrown as they are.
+ */
+public class ParallelCodeWriter extends CodeWriter {
+
+    private final CodeWriter delegate;
+
+    private final ExecutorService executor;
+
+    private final Semaphore pendingFiles;
+
+    private final List<Future<Void>> writes = new ArrayList<>();
+
+    private volatile Throwable firstFailure;
+
+    /**
+     * @param delegate
+     *            the writer used to write each file
+     * @param executor
+     *            the threads that write files
+     * @param maxPendingFiles
+     *            the maximum number of rendered files waiting to be written
+     */
+    public ParallelCodeWriter(CodeWriter delegate, ExecutorService executor, int maxPendingFiles) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.pendingFiles = new Semaphore(maxPendingFiles);
+    }
+
+    @Override
+    public Writer openSource(JPackage pkg, String fileName) {
+        return new StringWriter() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    String content = toString();
+                    submit(() -> {
+                        try (Writer writer = delegate.openSource(pkg, fileName)) {
+                            writer.write(content);
+                        }
+                        return null;
+                    });
+                }
+            }
+        };
+    }
+
+    @Override
+    public OutputStream openBinary(JPackage pkg, String fileName) {
+        return new ByteArrayOutputStream() {
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    byte[] content = toByteArray();
+                    submit(() -> {
+                        try (OutputStream outputStream = delegate.openBinary(pkg, fileName)) {
+                            outputStream.write(content);
+                        }
+                        return null;
+                    });
+                }
+            }
+        };
+    }
+
+    private void submit(Callable<Void> write) throws IOException {
+        if (firstFailure != null) {
+            throw rethrow(firstFailure);
+        }
+
+        try {
+            pendingFiles.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to write a file");
+        }
+
+        writes.add(executor.submit(() -> {
+            try {
+                return write.call();
+            } catch (Exception | Error e) {
+                if (firstFailure == null) {
+                    firstFailure = e;
+                }
+                throw e;
+            } finally {
+                pendingFiles.release();
+            }
+        }));
+    }
+
+    @Override
+    public void close() throws IOException {
+        Throwable failure = null;
+        for (Future<Void> write : writes) {
+            try {
+                write.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for files to be written");
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        writes.clear();
+
+        delegate.close();
+
+        if (failure != null) {
+            throw rethrow(failure);
+        }
+    }
+
+    private static IOException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return failure instanceof IOException ? (IOException) failure : new IOException(failure);
+    }
+
+}
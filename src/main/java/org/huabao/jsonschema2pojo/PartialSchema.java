@@ -0,0 +1,373 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The schema of the values seen at one position (the root, a property, or the
+ * items of an array) across any number of example documents. Partial schemas
+ * built from different examples can be merged in any grouping, so a corpus of
+ * examples can be split between workers and their partial schemas combined
+ * afterwards.
+ * <p>
+ * When values of different types are seen at the same position the type is
+ * widened: integers that need more than 32 bits become longs, and any mix of
+ * integers and numbers (or integers too large for a long) becomes a number.
+ * Values that can't be reconciled (e.g. strings and objects) become
+ * <code>"any"</code>. Simple values that are sometimes null are nullable (their
+ * type also includes <code>"null"</code>), and strings that always have the
+ * same recognisable format (a date-time, date, time or uuid) are given that
+ * format. A property is only marked as required if every object seen had a
+ * non-null value for it.
+ */
+public class PartialSchema {
+
+    private static final int NULL = 1;
+    private static final int BOOLEAN = 1 << 1;
+    private static final int INTEGER = 1 << 2;
+    private static final int LONG = 1 << 3;
+    private static final int NUMBER = 1 << 4;
+    private static final int STRING = 1 << 5;
+    private static final int OBJECT = 1 << 6;
+    private static final int ARRAY = 1 << 7;
+    private static final int ANY = 1 << 8;
+
+    private static final int NUMERIC = INTEGER | LONG | NUMBER;
+
+    private static final int DATE_TIME_FORMAT = 1;
+    private static final int DATE_FORMAT = 1 << 1;
+    private static final int TIME_FORMAT = 1 << 2;
+    private static final int UUID_FORMAT = 1 << 3;
+    private static final int NO_FORMAT = 1 << 4;
+
+    private static final Pattern DATE_TIME = Pattern.compile("\\d{4}-\\d{2}-\\d{2}[Tt]\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?([Zz]|[+-]\\d{2}:\\d{2})");
+    private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Pattern TIME = Pattern.compile("\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?");
+    private static final Pattern UUID = Pattern.compile("\\p{XDigit}{8}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{4}-\\p{XDigit}{12}");
+
+    private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+    private int types;
+    private int stringFormats;
+    private long values;
+    private long nullValues;
+    private long objects;
+    private Map<String, PartialSchema> properties;
+    private PartialSchema items;
+
+    /**
+     * Adds the value at the parser's current token (and everything nested
+     * inside it) to this schema, leaving the parser on the last token of the
+     * value.
+     *
+     * @param parser
+     *            a parser positioned on the first token of a value
+     * @throws IOException
+     *             if the value can't be read
+     */
+    public void observe(JsonParser parser) throws IOException {
+        values++;
+
+        switch (parser.getCurrentToken()) {
+            case START_OBJECT:
+                types |= OBJECT;
+                objects++;
+                if (properties == null) {
+                    properties = new LinkedHashMap<>();
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    properties.computeIfAbsent(name, n -> new PartialSchema()).observe(parser);
+                }
+                break;
+            case START_ARRAY:
+                types |= ARRAY;
+                if (items == null) {
+                    items = new PartialSchema();
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    items.observe(parser);
+                }
+                break;
+            case VALUE_NULL:
+                types |= NULL;
+                nullValues++;
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                types |= BOOLEAN;
+                break;
+            case VALUE_STRING:
+                observeString(parser.getText());
+                break;
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        types |= INTEGER;
+                        break;
+                    case LONG:
+                        types |= LONG;
+                        break;
+                    default:
+                        types |= NUMBER;
+                        break;
+                }
+                break;
+            case VALUE_NUMBER_FLOAT:
+                types |= NUMBER;
+                break;
+            default:
+                // embedded values (e.g. binary data in YAML) can't be described
+                types |= ANY;
+                break;
+        }
+    }
+
+    /**
+     * Adds the given value (and everything nested inside it) to this schema.
+     * Only a sample of the elements of each array is added.
+     *
+     * @param value
+     *            the value
+     * @param arraySampleSize
+     *            the maximum number of elements of each array that are added
+     */
+    public void observe(JsonNode value, int arraySampleSize) {
+        switch (value.getNodeType()) {
+            case OBJECT:
+                values++;
+                types |= OBJECT;
+                objects++;
+                if (properties == null) {
+                    properties = new LinkedHashMap<>();
+                }
+                for (Iterator<Map.Entry<String, JsonNode>> fields = value.fields(); fields.hasNext();) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    properties.computeIfAbsent(field.getKey(), n -> new PartialSchema()).observe(field.getValue(), arraySampleSize);
+                }
+                break;
+            case ARRAY:
+                ReservoirSample<JsonNode> sample = new ReservoirSample<>(arraySampleSize);
+                for (JsonNode element : value) {
+                    int slot = sample.nextSlot();
+                    if (slot >= 0) {
+                        sample.set(slot, element);
+                    }
+                }
+                observeArray(sample.getElements(), arraySampleSize);
+                break;
+            case NULL:
+            case MISSING:
+                values++;
+                types |= NULL;
+                nullValues++;
+                break;
+            case BOOLEAN:
+                values++;
+                types |= BOOLEAN;
+                break;
+            case STRING:
+                values++;
+                observeString(value.textValue());
+                break;
+            case NUMBER:
+                values++;
+                if (!value.isIntegralNumber() || !value.canConvertToLong()) {
+                    types |= NUMBER;
+                } else {
+                    types |= value.canConvertToInt() ? INTEGER : LONG;
+                }
+                break;
+            default:
+                values++;
+                types |= ANY;
+                break;
+        }
+    }
+
+    /**
+     * Adds an array to this schema, given a sample of its elements.
+     *
+     * @param sample
+     *            the sampled elements of the array
+     * @param arraySampleSize
+     *            the maximum number of elements of each array nested inside
+     *            the sampled elements that are added
+     */
+    public void observeArray(List<JsonNode> sample, int arraySampleSize) {
+        values++;
+        types |= ARRAY;
+        if (items == null) {
+            items = new PartialSchema();
+        }
+        for (JsonNode element : sample) {
+            items.observe(element, arraySampleSize);
+        }
+    }
+
+    private void observeString(String value) {
+        types |= STRING;
+        stringFormats |= formatOf(value);
+    }
+
+    private static int formatOf(String value) {
+        if (value.length() < 8 || value.length() > 40 || !Character.isLetterOrDigit(value.charAt(0))) {
+            return NO_FORMAT;
+        } else if (DATE_TIME.matcher(value).matches()) {
+            return DATE_TIME_FORMAT;
+        } else if (DATE.matcher(value).matches()) {
+            return DATE_FORMAT;
+        } else if (TIME.matcher(value).matches()) {
+            return TIME_FORMAT;
+        } else if (UUID.matcher(value).matches()) {
+            return UUID_FORMAT;
+        } else {
+            return NO_FORMAT;
+        }
+    }
+
+    /**
+     * Merges another partial schema into this one. The other schema must not
+     * be used afterwards.
+     *
+     * @param other
+     *            the schema of values seen elsewhere
+     * @return this schema
+     */
+    public PartialSchema merge(PartialSchema other) {
+        types |= other.types;
+        stringFormats |= other.stringFormats;
+        values += other.values;
+        nullValues += other.nullValues;
+        objects += other.objects;
+
+        if (other.properties != null) {
+            if (properties == null) {
+                properties = new LinkedHashMap<>();
+            }
+            for (Map.Entry<String, PartialSchema> property : other.properties.entrySet()) {
+                PartialSchema existing = properties.get(property.getKey());
+                if (existing == null) {
+                    properties.put(property.getKey(), property.getValue());
+                } else {
+                    existing.merge(property.getValue());
+                }
+            }
+        }
+
+        if (other.items != null) {
+            items = items == null ? other.items : items.merge(other.items);
+        }
+
+        return this;
+    }
+
+    /**
+     * @return whether any value has been seen
+     */
+    public boolean isEmpty() {
+        return values == 0;
+    }
+
+    /**
+     * Creates the schema that describes every value seen.
+     *
+     * @return a new schema node
+     */
+    public ObjectNode toSchema() {
+        ObjectNode schema = NODE_FACTORY.objectNode();
+        int nonNullTypes = types & ~NULL;
+
+        if (nonNullTypes == 0) {
+            schema.put("type", "null");
+        } else if (nonNullTypes == BOOLEAN) {
+            putSimpleType(schema, "boolean");
+        } else if (nonNullTypes == STRING) {
+            putSimpleType(schema, "string");
+            String format = formatName();
+            if (format != null) {
+                schema.put("format", format);
+            }
+        } else if ((nonNullTypes & ~NUMERIC) == 0) {
+            if ((nonNullTypes & NUMBER) != 0) {
+                putSimpleType(schema, "number");
+            } else {
+                putSimpleType(schema, "integer");
+                if ((nonNullTypes & LONG) != 0) {
+                    // marks the integer as a long, as for a single example
+                    schema.put("minimum", Long.MAX_VALUE);
+                }
+            }
+        } else if (nonNullTypes == OBJECT) {
+            schema.put("type", "object");
+            ObjectNode propertiesNode = schema.putObject("properties");
+            for (Map.Entry<String, PartialSchema> property : properties.entrySet()) {
+                ObjectNode propertySchema = property.getValue().toSchema();
+                if (property.getValue().values - property.getValue().nullValues >= objects) {
+                    propertySchema.put("required", true);
+                }
+                propertiesNode.set(property.getKey(), propertySchema);
+            }
+        } else if (nonNullTypes == ARRAY) {
+            schema.put("type", "array");
+            if (!items.isEmpty()) {
+                schema.set("items", items.toSchema());
+            }
+        } else {
+            schema.put("type", "any");
+        }
+
+        return schema;
+    }
+
+    private void putSimpleType(ObjectNode schema, String type) {
+        if ((types & NULL) != 0) {
+            schema.putArray("type").add(type).add("null");
+        } else {
+            schema.put("type", type);
+        }
+    }
+
+    private String formatName() {
+        switch (stringFormats) {
+            case DATE_TIME_FORMAT:
+                return "date-time";
+            case DATE_FORMAT:
+                return "date";
+            case TIME_FORMAT:
+                return "time";
+            case UUID_FORMAT:
+                return "uuid";
+            default:
+                return null;
+        }
+    }
+
+}
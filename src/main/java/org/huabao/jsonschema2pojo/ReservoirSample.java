@@ -0,0 +1,87 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A fixed size, uniformly random sample of a sequence of elements of unknown
+ * length (reservoir sampling). The random numbers are seeded, so the same
+ * sequence always gives the same sample.
+ */
+final class ReservoirSample<T> {
+
+    private static final long SEED = 0x5EED;
+
+    private final Object[] elements;
+    private final long[] positions;
+    private final Random random = new Random(SEED);
+    private long seen;
+
+    ReservoirSample(int size) {
+        this.elements = new Object[size];
+        this.positions = new long[size];
+    }
+
+    /**
+     * Counts the next element of the sequence and decides whether it's part
+     * of the sample.
+     *
+     * @return the slot the element must be stored in (see
+     *         {@link #set(int, Object)}), or <code>-1</code> if the element
+     *         isn't part of the sample
+     */
+    int nextSlot() {
+        long position = seen++;
+        int slot = position < elements.length ? (int) position : (int) (random.nextDouble() * seen);
+
+        if (slot < elements.length) {
+            positions[slot] = position;
+            return slot;
+        }
+        return -1;
+    }
+
+    void set(int slot, T element) {
+        elements[slot] = element;
+    }
+
+    /**
+     * @return the sampled elements, in the order they appear in the sequence
+     */
+    @SuppressWarnings("unchecked")
+    List<T> getElements() {
+        int size = (int) Math.min(seen, elements.length);
+
+        Integer[] slots = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = i;
+        }
+        Arrays.sort(slots, Comparator.comparingLong(slot -> positions[slot]));
+
+        List<T> sample = new ArrayList<>(size);
+        for (int slot : slots) {
+            sample.add((T) elements[slot]);
+        }
+        return sample;
+    }
+
+}
@@ -16,11 +16,28 @@
 
 package org.huabao.jsonschema2pojo;
 
+import java.io.File;
+import java.io.FileFilter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
-
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.huabao.jsonschema2pojo.exception.GenerationException;
+import org.huabao.jsonschema2pojo.util.URLUtil;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
@@ -32,27 +49,104 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.jsonschema.SchemaAware;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
 import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
 import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.NullSerializer;
 
 public class SchemaGenerator {
 
+    private static final String[] LINE_DELIMITED_EXTENSIONS = { ".ndjson", ".jsonl" };
+
+    private static final long MIN_CHUNK_BYTES = 1024 * 1024;
+
     private final ObjectMapper objectMapper;
 
+    private final boolean streaming;
+
+    private final int arraySampleSize;
+
+    private final ConcurrentMap<Class<? extends JsonNode>, ObjectNode> simpleTypeSchemas = new ConcurrentHashMap<>();
+
     public SchemaGenerator() {
         this(null);
     }
 
     public SchemaGenerator(JsonFactory jsonFactory) {
+        this(jsonFactory, false);
+    }
+
+    /**
+     * @param jsonFactory
+     *            the factory used to parse examples, or <code>null</code> for
+     *            JSON
+     * @param streaming
+     *            whether to infer the schema of examples read from a URL while
+     *            they are being read (see {@link StreamingSchemaGenerator}),
+     *            rather than reading each example into memory first
+     */
+    public SchemaGenerator(JsonFactory jsonFactory, boolean streaming) {
+        this(jsonFactory, streaming, 0);
+    }
+
+    /**
+     * @param jsonFactory
+     *            the factory used to parse examples, or <code>null</code> for
+     *            JSON
+     * @param streaming
+     *            whether to infer the schema of examples read from a URL while
+     *            they are being read (see {@link StreamingSchemaGenerator}),
+     *            rather than reading each example into memory first
+     * @param arraySampleSize
+     *            the number of elements of each array that are sampled to
+     *            infer the type of its items, or <code>0</code> to use the
+     *            first element (see
+     *            {@link GenerationConfig#getExampleArraySampleSize()})
+     */
+    public SchemaGenerator(JsonFactory jsonFactory, boolean streaming, int arraySampleSize) {
+        if (arraySampleSize < 0) {
+            throw new IllegalArgumentException("The array sample size must not be negative: " + arraySampleSize);
+        }
+        this.arraySampleSize = arraySampleSize;
         this.objectMapper = new ObjectMapper(jsonFactory)
                 .enable(JsonParser.Feature.ALLOW_COMMENTS)
                 .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        this.streaming = streaming;
     }
 
     public ObjectNode schemaFromExample(URL example) {
 
         try {
+            if (streaming) {
+                try (JsonParser parser = this.objectMapper.getFactory().createParser(example)) {
+                    return new StreamingSchemaGenerator(this, this.objectMapper, this.arraySampleSize).schemaFromExample(parser);
+                }
+            }
+
+            JsonNode content = this.objectMapper.readTree(example);
+            return schemaFromExample(content);
+        } catch (IOException e) {
+            throw new GenerationException("Could not process JSON in source file", e);
+        }
+
+    }
+
+    /**
+     * Infers the schema of an example whose content has already been read.
+     *
+     * @param example
+     *            the raw content of the example
+     * @return the schema of the example
+     */
+    public ObjectNode schemaFromExample(byte[] example) {
+
+        try {
+            if (streaming) {
+                try (JsonParser parser = this.objectMapper.getFactory().createParser(example)) {
+                    return new StreamingSchemaGenerator(this, this.objectMapper, this.arraySampleSize).schemaFromExample(parser);
+                }
+            }
+
             JsonNode content = this.objectMapper.readTree(example);
             return schemaFromExample(content);
         } catch (IOException e) {
@@ -61,6 +155,206 @@ public class SchemaGenerator {
 
     }
 
+    /**
+     * Infers a single schema that describes every example in a corpus. The
+     * corpus is either a directory, in which case every file (accepted by the
+     * given filter) below it is an example document, or a single document.
+     * Each document may contain any number of examples: newline delimited or
+     * concatenated JSON, or a multi-document YAML stream.
+     * <p>
+     * Documents are read in parallel, and large newline delimited documents
+     * (<code>.ndjson</code>, <code>.jsonl</code>) are split into chunks that
+     * are read in parallel too. The schema inferred from each part of the
+     * corpus is merged (see {@link PartialSchema}) in corpus order, so the
+     * result doesn't depend on the number of threads. The parts are read in
+     * the fork/join pool of the calling thread, when it has one (so reading
+     * several corpora at once doesn't start more threads), and otherwise in
+     * the common pool.
+     *
+     * @param corpus
+     *            the location of the directory or document
+     * @param fileFilter
+     *            the filter applied to the files in a directory
+     * @param threads
+     *            the number of threads that generation uses, which decides
+     *            how finely large documents are split; with <code>1</code>
+     *            the corpus is read on the calling thread
+     * @return the schema of the examples in the corpus
+     */
+    public ObjectNode schemaFromCorpus(URL corpus, FileFilter fileFilter, int threads) {
+
+        List<Callable<PartialSchema>> tasks = new ArrayList<>();
+        try {
+            if (URLUtil.parseProtocol(corpus.toString()) == URLProtocol.FILE) {
+                File file = URLUtil.getFileFromURL(corpus);
+                List<File> files = new ArrayList<>();
+                if (file.isDirectory()) {
+                    collectCorpusFiles(file, fileFilter, files);
+                    files.sort(Comparator.comparing(File::getPath));
+                } else {
+                    files.add(file);
+                }
+
+                for (File corpusFile : files) {
+                    addCorpusTasks(corpusFile, threads, tasks);
+                }
+            } else {
+                tasks.add(() -> {
+                    try (JsonParser parser = this.objectMapper.getFactory().createParser(corpus)) {
+                        return readExamples(parser);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new GenerationException("Could not read example corpus " + corpus, e);
+        }
+
+        List<CorpusTask> readTasks = new ArrayList<>(tasks.size());
+        for (Callable<PartialSchema> task : tasks) {
+            readTasks.add(new CorpusTask(task));
+        }
+
+        if (threads <= 1 || readTasks.size() == 1) {
+            for (CorpusTask readTask : readTasks) {
+                readTask.invoke();
+            }
+        } else if (ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask.invokeAll(readTasks);
+        } else {
+            ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(readTasks)));
+        }
+
+        PartialSchema schema = new PartialSchema();
+        for (CorpusTask readTask : readTasks) {
+            if (readTask.failure instanceof RuntimeException) {
+                throw (RuntimeException) readTask.failure;
+            } else if (readTask.failure != null) {
+                throw new GenerationException("Could not process JSON in example corpus " + corpus, readTask.failure);
+            }
+            schema.merge(readTask.join());
+        }
+
+        if (schema.isEmpty()) {
+            throw new GenerationException("No examples found in corpus " + corpus);
+        }
+        return schema.toSchema();
+
+    }
+
+    /**
+     * Reads part of a corpus, keeping hold of the exception it fails with
+     * rather than letting the pool rethrow a copy of it.
+     */
+    private static final class CorpusTask extends RecursiveTask<PartialSchema> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Callable<PartialSchema> task;
+
+        private transient Exception failure;
+
+        CorpusTask(Callable<PartialSchema> task) {
+            this.task = task;
+        }
+
+        @Override
+        protected PartialSchema compute() {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                failure = e;
+                return null;
+            }
+        }
+    }
+
+    private void collectCorpusFiles(File directory, FileFilter fileFilter, List<File> files) throws IOException {
+        File[] children = directory.listFiles(fileFilter);
+        if (children == null) {
+            throw new IOException("Could not list the contents of " + directory.getAbsolutePath());
+        }
+
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collectCorpusFiles(child, fileFilter, files);
+            } else {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * Adds the tasks that read the given file: one for the whole file, or for
+     * large newline delimited files one for each chunk of whole lines.
+     */
+    private void addCorpusTasks(File file, int threads, List<Callable<PartialSchema>> tasks) throws IOException {
+        long length = file.length();
+        int chunks = (int) Math.min(Math.max(1, threads) * 4L, Math.max(1, length / MIN_CHUNK_BYTES));
+
+        if (chunks == 1 || !isLineDelimited(file)) {
+            tasks.add(() -> {
+                try (JsonParser parser = this.objectMapper.getFactory().createParser(file)) {
+                    return readExamples(parser);
+                }
+            });
+            return;
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long start = 0;
+            for (int i = 1; i <= chunks && start < length; i++) {
+                long end = i == chunks ? length : nextLineStart(randomAccessFile, Math.max(start, length * i / chunks));
+
+                long chunkStart = start;
+                tasks.add(() -> {
+                    try (InputStream in = Files.newInputStream(file.toPath())) {
+                        IOUtils.skipFully(in, chunkStart);
+                        try (JsonParser parser = this.objectMapper.getFactory().createParser(new BoundedInputStream(in, end - chunkStart))) {
+                            return readExamples(parser);
+                        }
+                    }
+                });
+                start = end;
+            }
+        }
+    }
+
+    private static boolean isLineDelimited(File file) {
+        String name = file.getName().toLowerCase();
+        for (String extension : LINE_DELIMITED_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the offset just after the first newline at or after the given
+     *         offset, or the length of the file if there is none
+     */
+    private static long nextLineStart(RandomAccessFile file, long offset) throws IOException {
+        file.seek(offset);
+        byte[] buffer = new byte[8192];
+        for (int read; (read = file.read(buffer)) != -1;) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return offset;
+    }
+
+    private PartialSchema readExamples(JsonParser parser) throws IOException {
+        PartialSchema schema = new PartialSchema();
+        while (parser.nextToken() != null) {
+            schema.observe(parser);
+        }
+        return schema;
+    }
+
     public ObjectNode schemaFromExample(JsonNode example) {
 
         if (example.isObject()) {
@@ -89,6 +383,12 @@ public class SchemaGenerator {
     }
 
     private ObjectNode arraySchema(JsonNode exampleArray) {
+        if (arraySampleSize > 0) {
+            PartialSchema sampledSchema = new PartialSchema();
+            sampledSchema.observe(exampleArray, arraySampleSize);
+            return sampledSchema.toSchema();
+        }
+
         ObjectNode schema = this.objectMapper.createObjectNode();
 
         schema.put("type", "array");
@@ -147,6 +447,40 @@ public class SchemaGenerator {
     }
 
     private ObjectNode simpleTypeSchema(JsonNode exampleValue) {
+        return getSimpleTypeSchema(exampleValue).deepCopy();
+    }
+
+    /**
+     * Gets the (shared, so not to be modified) schema of a simple value. The
+     * schema only depends on the type of node, so it is created once for each
+     * type of node.
+     */
+    ObjectNode getSimpleTypeSchema(JsonNode exampleValue) {
+        if (exampleValue instanceof POJONode) {
+            // the schema depends on the type of the wrapped value
+            return createSimpleTypeSchema(exampleValue);
+        }
+
+        ObjectNode schema = simpleTypeSchemas.get(exampleValue.getClass());
+        if (schema == null) {
+            schema = createSimpleTypeSchema(exampleValue);
+            simpleTypeSchemas.putIfAbsent(exampleValue.getClass(), schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Gets the (shared, so not to be modified) schema of simple values of the
+     * given node type, if one has been created.
+     *
+     * @return the schema, or <code>null</code> if no value of this type has
+     *         been seen yet
+     */
+    ObjectNode getSimpleTypeSchema(Class<? extends JsonNode> nodeType) {
+        return simpleTypeSchemas.get(nodeType);
+    }
+
+    private ObjectNode createSimpleTypeSchema(JsonNode exampleValue) {
 
         try {
 
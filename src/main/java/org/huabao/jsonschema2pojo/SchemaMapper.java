@@ -19,8 +19,21 @@ package org.huabao.jsonschema2pojo;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.huabao.jsonschema2pojo.rules.RuleFactory;
+import org.huabao.jsonschema2pojo.util.SchemaReferences;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -39,6 +52,10 @@ import org.huabao.codemodel.JType;
 public class SchemaMapper {
     private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(JsonParser.Feature.ALLOW_COMMENTS)
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
     private final RuleFactory ruleFactory;
     private final SchemaGenerator schemaGenerator;
 
@@ -85,14 +102,225 @@ public class SchemaMapper {
      */
     public JType generate(JCodeModel codeModel, String className, String packageName, URL schemaUrl) {
 
+        return generate(codeModel, className, packageName, readSchema(schemaUrl));
+
+    }
+
+    /**
+     * Adds generated types to the given code model using a schema that has
+     * already been read with {@link #prefetch(URL)}.
+     *
+     * @param codeModel
+     *            the java code-generation context that should be used to
+     *            generated new types
+     * @param className
+     *            the name of the parent class the represented by this schema
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param schemaNode
+     *            the schema node returned by {@link #prefetch(URL)}
+     * @return The top-most type generated from the given schema
+     */
+    public JType generate(JCodeModel codeModel, String className, String packageName, ObjectNode schemaNode) {
+
         JPackage jpackage = codeModel._package(packageName);
 
+        return ruleFactory.getSchemaRule().apply(className, schemaNode, null, jpackage, new Schema(null, schemaNode, null));
+
+    }
+
+    /**
+     * Reads the given source ahead of generation. For schema sources the
+     * document is loaded into the {@link SchemaStore}, for example sources the
+     * schema is inferred. No types are generated, so this method may be called
+     * from several threads at once while the code model is left untouched.
+     *
+     * @param schemaUrl
+     *            location of the schema to be used as input
+     * @return a schema node that can be passed to
+     *         {@link #generate(JCodeModel, String, String, ObjectNode)}
+     */
+    public ObjectNode prefetch(URL schemaUrl) {
+
         ObjectNode schemaNode = readSchema(schemaUrl);
 
-        return ruleFactory.getSchemaRule().apply(className, schemaNode, null, jpackage, new Schema(null, schemaNode, null));
+        if (schemaNode.has("$ref")) {
+            ruleFactory.getSchemaStore().create(null, schemaNode.get("$ref").asText(), ruleFactory.getGenerationConfig().getRefFragmentPathDelimiters());
+        }
+
+        return schemaNode;
+
+    }
+
+    /**
+     * Reads a batch of related schemas and adds the types generated from them
+     * to the given code model. All schemas are read through the same
+     * {@link SchemaStore}, so documents they have in common are only read
+     * once and each generates its types only once. Schemas are generated in
+     * dependency order: a schema referred to (directly or through other
+     * documents) by another schema of the batch is generated first, so that
+     * its type gets the class name it was given here rather than a name
+     * derived from the reference. Set
+     * {@link GenerationConfig#isDeduplicateInlineTypes()} to also share one
+     * type between structurally identical inline schemas.
+     *
+     * @param codeModel
+     *            the java code-generation context that should be used to
+     *            generated new types
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param schemaUrls
+     *            the location of each schema, keyed by the name of the class
+     *            that should represent it
+     * @return the top-most type generated from each schema, keyed by class
+     *         name, in the order given
+     */
+    public Map<String, JType> generateAll(JCodeModel codeModel, String packageName, Map<String, URL> schemaUrls) {
+
+        Map<String, ObjectNode> schemaNodes = new LinkedHashMap<>();
+        for (Map.Entry<String, URL> schemaUrl : schemaUrls.entrySet()) {
+            schemaNodes.put(schemaUrl.getKey(), prefetch(schemaUrl.getValue()));
+        }
+
+        // keep the given order in the result, whatever order types are generated in
+        Map<String, JType> types = new LinkedHashMap<>();
+        for (String className : schemaNodes.keySet()) {
+            types.put(className, null);
+        }
+        for (String className : dependencyOrder(schemaNodes)) {
+            types.put(className, generate(codeModel, className, packageName, schemaNodes.get(className)));
+        }
+        return types;
+
+    }
+
+    /**
+     * Orders the given schemas so that every schema comes after the schemas
+     * whose documents it refers to, directly or through other documents.
+     * Schemas that refer to each other in a cycle are ordered as a depth first
+     * walk of the references, starting from the first of them, finishes them.
+     */
+    private List<String> dependencyOrder(Map<String, ObjectNode> schemaNodes) {
+
+        Map<URI, String> roots = new HashMap<>();
+        for (Map.Entry<String, ObjectNode> schemaNode : schemaNodes.entrySet()) {
+            if (schemaNode.getValue().has("$ref")) {
+                roots.putIfAbsent(URI.create(schemaNode.getValue().get("$ref").asText()).normalize(), schemaNode.getKey());
+            }
+        }
+
+        Set<String> ordered = new LinkedHashSet<>();
+        Set<URI> visited = new HashSet<>();
+        for (Map.Entry<String, ObjectNode> schemaNode : schemaNodes.entrySet()) {
+            if (schemaNode.getValue().has("$ref")) {
+                visit(URI.create(schemaNode.getValue().get("$ref").asText()).normalize(), roots, visited, ordered);
+            }
+            ordered.add(schemaNode.getKey());
+        }
+        return new ArrayList<>(ordered);
 
     }
 
+    private void visit(URI documentId, Map<URI, String> roots, Set<URI> visited, Set<String> ordered) {
+
+        Deque<Iterator<URI>> stack = new ArrayDeque<>();
+        Deque<URI> path = new ArrayDeque<>();
+        if (visited.add(documentId)) {
+            stack.push(references(documentId).iterator());
+            path.push(documentId);
+        }
+
+        // depth first, without recursion, since chains of documents can be long
+        while (!stack.isEmpty()) {
+            Iterator<URI> references = stack.peek();
+            if (references.hasNext()) {
+                URI reference = references.next();
+                if (visited.add(reference)) {
+                    stack.push(references(reference).iterator());
+                    path.push(reference);
+                }
+            } else {
+                stack.pop();
+                String root = roots.get(path.pop());
+                if (root != null) {
+                    ordered.add(root);
+                }
+            }
+        }
+
+    }
+
+    private Set<URI> references(URI documentId) {
+        Schema document = ruleFactory.getSchemaStore().create(documentId, ruleFactory.getGenerationConfig().getRefFragmentPathDelimiters());
+        return SchemaReferences.documentReferences(documentId, document.getContent());
+    }
+
+    /**
+     * Reads a schema document (typically a bundle of many definitions) and
+     * adds to the given code model only the types needed by the given roots:
+     * each root and everything it refers to, directly or indirectly. Rules
+     * are never applied to the rest of the document. The number of
+     * definitions left out is logged.
+     *
+     * @param codeModel
+     *            the java code-generation context that should be used to
+     *            generated new types
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param schemaUrl
+     *            location of the schema document
+     * @param roots
+     *            the schemas to generate types for, each given as a JSON
+     *            pointer into the document (e.g. <code>#/definitions/Pet</code>
+     *            or <code>/definitions/Pet</code>) or as the name of an entry
+     *            in the document's <code>definitions</code> or
+     *            <code>$defs</code>
+     * @return the type generated for each root, keyed by root, in the order
+     *         given
+     * @throws IllegalArgumentException
+     *             if a root can't be found in the document
+     */
+    public Map<String, JType> generateReachable(JCodeModel codeModel, String packageName, URL schemaUrl, List<String> roots) {
+
+        GenerationConfig config = ruleFactory.getGenerationConfig();
+        URI documentId = URI.create(schemaUrl.toString()).normalize();
+        JsonNode content = ruleFactory.getSchemaStore().create(documentId, config.getRefFragmentPathDelimiters()).getContent();
+
+        Map<String, String> fragments = new LinkedHashMap<>();
+        for (String root : roots) {
+            fragments.put(root, rootFragment(content, root, schemaUrl));
+        }
+
+        Set<String> reachable = SchemaReferences.reachableDefinitions(documentId, content, fragments.values(), config.getRefFragmentPathDelimiters());
+        int definitions = SchemaReferences.countDefinitions(content);
+        ruleFactory.getLogger().info("Generating " + reachable.size() + " of " + definitions + " definitions in " + schemaUrl
+                + " reachable from " + roots.size() + " roots, pruned " + (definitions - reachable.size()) + " definitions");
+
+        Map<String, JType> types = new LinkedHashMap<>();
+        for (Map.Entry<String, String> fragment : fragments.entrySet()) {
+            ObjectNode schemaNode = NODE_FACTORY.objectNode();
+            // the document root is referred to without a fragment, so that its type is named after the document
+            schemaNode.put("$ref", "#".equals(fragment.getValue()) ? schemaUrl.toString() : schemaUrl + fragment.getValue());
+            types.put(fragment.getKey(), generate(codeModel, fragment.getKey(), packageName, schemaNode));
+        }
+        return types;
+
+    }
+
+    private String rootFragment(JsonNode content, String root, URL schemaUrl) {
+        if (root.startsWith("#")) {
+            return root;
+        } else if (root.startsWith("/")) {
+            return "#" + root;
+        } else if (content.path("definitions").has(root)) {
+            return "#/definitions/" + root;
+        } else if (content.path("$defs").has(root)) {
+            return "#/$defs/" + root;
+        } else {
+            throw new IllegalArgumentException("No definition named " + root + " in " + schemaUrl);
+        }
+    }
+
     private ObjectNode readSchema(URL schemaUrl) {
 
         switch (ruleFactory.getGenerationConfig().getSourceType()) {
@@ -103,6 +331,10 @@ public class SchemaMapper {
                 return schemaNode;
             case JSON:
             case YAML:
+                GenerationConfig config = ruleFactory.getGenerationConfig();
+                if (config.isExampleCorpus()) {
+                    return schemaGenerator.schemaFromCorpus(schemaUrl, config.getFileFilter(), config.getGenerationThreads());
+                }
                 return schemaGenerator.schemaFromExample(schemaUrl);
             default:
                 throw new IllegalArgumentException("Unrecognised source type: " + ruleFactory.getGenerationConfig().getSourceType());
@@ -136,10 +368,47 @@ public class SchemaMapper {
         return ruleFactory.getSchemaRule().apply(className, schemaNode, null, jpackage, new Schema(null, schemaNode, null));
     }
 
-    private ObjectMapper objectMapper() {
-        return new ObjectMapper()
-                .enable(JsonParser.Feature.ALLOW_COMMENTS)
-                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    /**
+     * Generates types from the given schema (or, for json/yaml source types,
+     * example) and returns the generated files without writing anything to
+     * disk.
+     *
+     * @param className
+     *            the name of the parent class the represented by this schema
+     * @param packageName
+     *            the target package that should be used for generated types
+     * @param json
+     *            the schema (or example) content
+     * @return the content of each generated file, keyed by its path relative
+     *         to the output directory (e.g. <code>com/example/Foo.java</code>)
+     *         and encoded as UTF-8
+     * @throws IOException
+     *             if the content cannot be parsed
+     */
+    public Map<String, byte[]> generateSources(String className, String packageName, String json) throws IOException {
+
+        JCodeModel codeModel = new JCodeModel();
+        generate(codeModel, className, packageName, json);
+
+        InMemoryCodeWriter codeWriter = new InMemoryCodeWriter();
+        codeModel.build(SizeLimitedCodeWriter.of(codeWriter, StandardCharsets.UTF_8.name(), ruleFactory.getGenerationConfig().getMaxSourceBytes()), codeWriter);
+        return codeWriter.getFiles();
+    }
+
+    /**
+     * @return the factory used by this mapper to create Java type generation
+     *         rules
+     */
+    public RuleFactory getRuleFactory() {
+        return ruleFactory;
+    }
+
+    /**
+     * @return the (shared, fully configured) mapper used to parse schema and
+     *         example content
+     */
+    protected ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
     }
 
 }
@@ -27,17 +27,22 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 public class SchemaStore {
 
-    protected final Map<URI, Schema> schemas = new HashMap<>();
+    protected final Map<URI, Schema> schemas;
 
     protected final FragmentResolver fragmentResolver = new FragmentResolver();
     protected final ContentResolver contentResolver;
 
     public SchemaStore() {
-        this.contentResolver = new ContentResolver();
+        this(new ContentResolver());
     }
 
     public SchemaStore(ContentResolver contentResolver) {
+        this(contentResolver, new HashMap<>());
+    }
+
+    protected SchemaStore(ContentResolver contentResolver, Map<URI, Schema> schemas) {
         this.contentResolver = contentResolver;
+        this.schemas = schemas;
     }
 
     /**
@@ -51,26 +56,50 @@ public class SchemaStore {
      *                                  that should act as path delimiters when resolving $ref fragments.
      * @return a schema object containing the contents of the given path
      */
-    public synchronized Schema create(URI id, String refFragmentPathDelimiters) {
+    public Schema create(URI id, String refFragmentPathDelimiters) {
 
         URI normalizedId = id.normalize();
 
-        if (!schemas.containsKey(normalizedId)) {
+        synchronized (this) {
+            Schema existing = schemas.get(normalizedId);
+            if (existing != null) {
+                return existing;
+            }
+        }
 
-            URI baseId = removeFragment(id).normalize();
-            JsonNode baseContent = contentResolver.resolve(baseId);
+        // resolve outside the lock so that unrelated documents can be read concurrently
+        Schema schema = resolveSchema(id, refFragmentPathDelimiters);
 
-            Schema baseSchema = new Schema(baseId, baseContent, null);
+        synchronized (this) {
+            Schema existing = schemas.putIfAbsent(normalizedId, schema);
+            return existing != null ? existing : schema;
+        }
+    }
 
-            if (normalizedId.toString().contains("#")) {
-                JsonNode childContent = fragmentResolver.resolve(baseContent, '#' + id.getFragment(), refFragmentPathDelimiters);
-                schemas.put(normalizedId, new Schema(normalizedId, childContent, baseSchema));
-            } else {
-                schemas.put(normalizedId, baseSchema);
-            }
+    /**
+     * Reads the document with the given ID (and resolves its fragment, if any)
+     * without looking up or registering the result in this store.
+     */
+    protected Schema resolveSchema(URI id, String refFragmentPathDelimiters) {
+        URI normalizedId = id.normalize();
+        URI baseId = removeFragment(id).normalize();
+        JsonNode baseContent = resolveDocument(baseId);
+
+        Schema baseSchema = new Schema(baseId, baseContent, null);
+
+        if (normalizedId.toString().contains("#")) {
+            JsonNode childContent = fragmentResolver.resolve(baseContent, '#' + id.getFragment(), refFragmentPathDelimiters);
+            return new Schema(normalizedId, childContent, baseSchema);
+        } else {
+            return baseSchema;
         }
+    }
 
-        return schemas.get(normalizedId);
+    /**
+     * Reads the content of the (fragment-less) document with the given ID.
+     */
+    protected JsonNode resolveDocument(URI baseId) {
+        return contentResolver.resolve(baseId);
     }
 
     protected URI removeFragment(URI id) {
@@ -128,7 +157,9 @@ public class SchemaStore {
         if (selfReferenceWithoutParentFile(parent, path) || substringBefore(stringId, "#").isEmpty()) {
             JsonNode parentContent = parent.getGrandParent().getContent();
             Schema schema = new Schema(id, fragmentResolver.resolve(parentContent, path, refFragmentPathDelimiters), parent.getGrandParent());
-            schemas.put(id, schema);
+            synchronized (this) {
+                schemas.put(id, schema);
+            }
             return schema;
         }
 
@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.huabao.codemodel.CodeWriter;
+import org.huabao.codemodel.JPackage;
+import org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException;
+import org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException.Budget;
+
+/**
+ * A writer that counts the bytes written through another writer and stops
+ * the code model from writing once more than a given number of bytes have
+ * been written in total, by throwing a
+ * {@link GenerationBudgetExceededException} (see
+ * {@link GenerationConfig#getMaxSourceBytes()}). Sources are encoded here,
+ * in the given encoding, so that the bytes counted are the bytes written; the
+ * other writer only sees encoded files. Files may be written from several
+ * threads at once, so when files are written in parallel this writer should
+ * sit beneath the {@link ParallelCodeWriter}, where the encoding takes place.
+ */
+public class SizeLimitedCodeWriter extends CodeWriter {
+
+    private final CodeWriter delegate;
+
+    private final long maxBytes;
+
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    /**
+     * @param delegate
+     *            the writer used to write each file
+     * @param encoding
+     *            the encoding of generated sources
+     * @param maxBytes
+     *            the maximum number of bytes that may be written
+     */
+    public SizeLimitedCodeWriter(CodeWriter delegate, String encoding, long maxBytes) {
+        this.delegate = delegate;
+        this.encoding = encoding;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Limits the bytes written through the given writer, if there is a limit.
+     *
+     * @param maxBytes
+     *            the maximum number of bytes that may be written, or
+     *            <code>0</code> for no limit (see
+     *            {@link GenerationConfig#getMaxSourceBytes()})
+     * @return the given writer when there is no limit, otherwise a writer
+     *         that limits the bytes written through the given writer
+     */
+    static CodeWriter of(CodeWriter delegate, String encoding, long maxBytes) {
+        return maxBytes > 0 ? new SizeLimitedCodeWriter(delegate, encoding, maxBytes) : delegate;
+    }
+
+    @Override
+    public Writer openSource(JPackage pkg, String fileName) throws IOException {
+        return FileCodeWriterWithEncoding.openSource(openBinary(pkg, fileName), encoding);
+    }
+
+    @Override
+    public OutputStream openBinary(JPackage pkg, String fileName) throws IOException {
+        String path = pkg.isUnnamed() ? fileName : pkg.name().replace('.', '/') + '/' + fileName;
+        return new FilterOutputStream(delegate.openBinary(pkg, fileName)) {
+            @Override
+            public void write(int b) throws IOException {
+                count(path, 1);
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                count(path, len);
+                out.write(b, off, len);
+            }
+        };
+    }
+
+    private void count(String path, int bytes) {
+        if (writtenBytes.addAndGet(bytes) > maxBytes) {
+            throw new GenerationBudgetExceededException(Budget.SOURCE_BYTES, maxBytes, path);
+        }
+    }
+
+    /**
+     * @return the number of bytes written so far
+     */
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link ContentResolver} that reads each document only once, and answers
+ * every later read or resolve of the same document from that first read, so
+ * that a run sees a single version of each document: the content that was
+ * hashed (see {@link GenerationManifest#hash(ContentResolver, URI, boolean)})
+ * is exactly the content that types are generated from. Documents are read
+ * and parsed by the given resolver, and kept in memory for as long as this
+ * resolver, which is meant to serve a single generation run. As documents are
+ * always read before they are parsed, a {@link CachingContentResolver} only
+ * saves parsing them, matching its entries by content hash rather than by
+ * file modification time.
+ */
+class SnapshotContentResolver extends ContentResolver {
+
+    private final ContentResolver contentResolver;
+
+    private final ConcurrentMap<URI, byte[]> contents = new ConcurrentHashMap<>();
+    private final ConcurrentMap<URI, JsonNode> documents = new ConcurrentHashMap<>();
+
+    /**
+     * @param contentResolver
+     *            the resolver that documents are read and parsed with
+     */
+    SnapshotContentResolver(ContentResolver contentResolver) {
+        this.contentResolver = contentResolver;
+    }
+
+    @Override
+    public JsonNode resolve(URI uri) {
+        JsonNode document = documents.get(uri);
+        return document != null ? document : parse(uri, read(uri));
+    }
+
+    @Override
+    public byte[] read(URI uri) {
+        byte[] content = contents.get(uri);
+        if (content == null) {
+            content = contentResolver.read(uri);
+            byte[] existing = contents.putIfAbsent(uri, content);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return content;
+    }
+
+    @Override
+    public JsonNode parse(URI uri, byte[] content) {
+        if (content != contents.get(uri)) {
+            return contentResolver.parse(uri, content);
+        }
+
+        JsonNode document = documents.get(uri);
+        if (document == null) {
+            document = contentResolver.parse(uri, content);
+            JsonNode existing = documents.putIfAbsent(uri, document);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return document;
+    }
+
+}
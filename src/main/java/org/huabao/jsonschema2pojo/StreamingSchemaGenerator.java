@@ -0,0 +1,271 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BigIntegerNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * Infers a schema from an example document while the document is being read,
+ * one token at a time, instead of reading the whole document into memory
+ * first. Only the shape of the example is kept (the properties of each
+ * object and the type of each value), so memory use is bounded by the size
+ * of the resulting schema rather than the size of the example.
+ * <p>
+ * The schema is the same as {@link SchemaGenerator#schemaFromExample(JsonNode)}
+ * would create for the whole document: the items of an array are described
+ * by its first element, or, when the first element is an object, by all of
+ * its object elements merged together. The one difference is an object in an
+ * array that repeats a property name: the document tree only keeps the last
+ * value of a repeated property, whereas here every value is merged.
+ * <p>
+ * When arrays are sampled (see
+ * {@link GenerationConfig#getExampleArraySampleSize()}) only the sampled
+ * elements of each array are read into memory, one at a time as the sample
+ * is drawn, and every other element is skipped.
+ */
+public class StreamingSchemaGenerator {
+
+    private final SchemaGenerator schemaGenerator;
+    private final ObjectMapper objectMapper;
+    private final int arraySampleSize;
+
+    StreamingSchemaGenerator(SchemaGenerator schemaGenerator, ObjectMapper objectMapper, int arraySampleSize) {
+        this.schemaGenerator = schemaGenerator;
+        this.objectMapper = objectMapper;
+        this.arraySampleSize = arraySampleSize;
+    }
+
+    /**
+     * Reads the first value from the given parser and infers a schema for it.
+     *
+     * @param parser
+     *            a parser positioned before the example value
+     * @return the schema of the example
+     * @throws IOException
+     *             if the example can't be read
+     */
+    public ObjectNode schemaFromExample(JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            throw new IOException("No content found in example");
+        }
+        return observe(parser).toSchema();
+    }
+
+    private Shape observe(JsonParser parser) throws IOException {
+        switch (parser.getCurrentToken()) {
+            case START_OBJECT:
+                ObjectShape objectShape = new ObjectShape();
+                objectShape.read(parser, false);
+                return objectShape;
+            case START_ARRAY:
+                if (arraySampleSize > 0) {
+                    SampledArrayShape sampledArrayShape = new SampledArrayShape();
+                    sampledArrayShape.read(parser);
+                    return sampledArrayShape;
+                }
+                ArrayShape arrayShape = new ArrayShape();
+                arrayShape.read(parser);
+                return arrayShape;
+            default:
+                return new SimpleShape(simpleTypeSchema(parser));
+        }
+    }
+
+    private ObjectNode simpleTypeSchema(JsonParser parser) throws IOException {
+        Class<? extends JsonNode> nodeType = nodeType(parser);
+        ObjectNode schema = nodeType == null ? null : schemaGenerator.getSimpleTypeSchema(nodeType);
+
+        if (schema == null) {
+            JsonNode value = parser.readValueAsTree();
+            schema = schemaGenerator.getSimpleTypeSchema(value == null ? NullNode.getInstance() : value);
+        }
+        return schema;
+    }
+
+    /**
+     * @return the type of node that reading the current value as a tree
+     *         would create, or <code>null</code> if that depends on more than
+     *         the token
+     */
+    private Class<? extends JsonNode> nodeType(JsonParser parser) throws IOException {
+        switch (parser.getCurrentToken()) {
+            case VALUE_NULL:
+                return NullNode.class;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return BooleanNode.class;
+            case VALUE_STRING:
+                return TextNode.class;
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        return IntNode.class;
+                    case LONG:
+                        return LongNode.class;
+                    default:
+                        return BigIntegerNode.class;
+                }
+            case VALUE_NUMBER_FLOAT:
+                return objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS) ? DecimalNode.class : null;
+            default:
+                return null;
+        }
+    }
+
+    private interface Shape {
+
+        ObjectNode toSchema();
+
+    }
+
+    private final class ObjectShape implements Shape {
+
+        private final Map<String, Shape> properties = new LinkedHashMap<>();
+
+        /**
+         * Reads the object at the current (START_OBJECT) token into this
+         * shape. When merging, properties that were seen before and have the
+         * same kind of value (both objects or both arrays) are merged, every
+         * other value replaces what was seen before.
+         */
+        void read(JsonParser parser, boolean merge) throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                Shape existing = properties.get(name);
+
+                if (merge && existing instanceof ObjectShape && valueToken == JsonToken.START_OBJECT) {
+                    ((ObjectShape) existing).read(parser, true);
+                } else if (merge && existing instanceof ArrayShape && valueToken == JsonToken.START_ARRAY) {
+                    // arrays are concatenated
+                    ((ArrayShape) existing).read(parser);
+                } else {
+                    properties.put(name, observe(parser));
+                }
+            }
+        }
+
+        @Override
+        public ObjectNode toSchema() {
+            ObjectNode schema = objectMapper.createObjectNode();
+            schema.put("type", "object");
+
+            ObjectNode propertiesNode = objectMapper.createObjectNode();
+            for (Map.Entry<String, Shape> property : properties.entrySet()) {
+                propertiesNode.set(property.getKey(), property.getValue().toSchema());
+            }
+            schema.set("properties", propertiesNode);
+
+            return schema;
+        }
+    }
+
+    private final class ArrayShape implements Shape {
+
+        private Shape items;
+        private boolean mergeItems;
+
+        /**
+         * Reads the elements of the array at the current (START_ARRAY) token,
+         * as if they were appended to the elements seen before.
+         */
+        void read(JsonParser parser) throws IOException {
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (items == null) {
+                    items = observe(parser);
+                    mergeItems = token == JsonToken.START_OBJECT;
+                } else if (mergeItems && token == JsonToken.START_OBJECT) {
+                    ((ObjectShape) items).read(parser, true);
+                } else {
+                    // only the first element counts, unless elements are merged objects
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        @Override
+        public ObjectNode toSchema() {
+            ObjectNode schema = objectMapper.createObjectNode();
+            schema.put("type", "array");
+
+            if (items != null) {
+                schema.set("items", items.toSchema());
+            }
+
+            return schema;
+        }
+    }
+
+    private final class SampledArrayShape implements Shape {
+
+        private final ReservoirSample<JsonNode> sample = new ReservoirSample<>(arraySampleSize);
+
+        /**
+         * Reads the elements of the array at the current (START_ARRAY) token,
+         * keeping only those that are part of the sample.
+         */
+        void read(JsonParser parser) throws IOException {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                int slot = sample.nextSlot();
+                if (slot >= 0) {
+                    JsonNode element = parser.readValueAsTree();
+                    sample.set(slot, element == null ? NullNode.getInstance() : element);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        @Override
+        public ObjectNode toSchema() {
+            PartialSchema schema = new PartialSchema();
+            schema.observeArray(sample.getElements(), arraySampleSize);
+            return schema.toSchema();
+        }
+    }
+
+    private static final class SimpleShape implements Shape {
+
+        private final ObjectNode schema;
+
+        SimpleShape(ObjectNode schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public ObjectNode toSchema() {
+            return schema.deepCopy();
+        }
+    }
+
+}
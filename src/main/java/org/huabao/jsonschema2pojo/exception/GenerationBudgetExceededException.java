@@ -0,0 +1,87 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.exception;
+
+/**
+ * Thrown when generation stops early because one of the resource budgets in
+ * the configuration (such as the maximum number of generated classes) was
+ * exceeded. The code model being generated into is left incomplete and
+ * should be discarded.
+ */
+public class GenerationBudgetExceededException extends GenerationException {
+
+    private static final long serialVersionUID = -6412879305521746190L;
+
+    /**
+     * The resource budgets that generation can exceed.
+     */
+    public enum Budget {
+        GENERATED_CLASSES("maxGeneratedClasses"),
+        NESTING_DEPTH("maxNestingDepth"),
+        PROPERTIES_PER_CLASS("maxPropertiesPerClass"),
+        ENUM_CONSTANTS("maxEnumConstants"),
+        SOURCE_BYTES("maxSourceBytes");
+
+        private final String option;
+
+        Budget(String option) {
+            this.option = option;
+        }
+
+        /**
+         * @return the name of the configuration option that sets this budget
+         */
+        public String getOption() {
+            return option;
+        }
+    }
+
+    private final Budget budget;
+
+    private final long limit;
+
+    private final String location;
+
+    public GenerationBudgetExceededException(Budget budget, long limit, String location) {
+        super("Generation exceeded the '" + budget.getOption() + "' budget of " + limit + " at " + location);
+        this.budget = budget;
+        this.limit = limit;
+        this.location = location;
+    }
+
+    /**
+     * @return the budget that was exceeded
+     */
+    public Budget getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return the configured value of the budget that was exceeded
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return where the budget was exceeded: the schema node being
+     *         generated, or the file being written
+     */
+    public String getLocation() {
+        return location;
+    }
+}
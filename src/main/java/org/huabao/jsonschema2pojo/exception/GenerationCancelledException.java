@@ -0,0 +1,42 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.exception;
+
+/**
+ * Thrown when generation stops early because it was cancelled or ran past
+ * its deadline. The code model being generated into is left incomplete and
+ * should be discarded.
+ */
+public class GenerationCancelledException extends GenerationException {
+
+    private static final long serialVersionUID = 3265104839172255904L;
+
+    private final boolean deadlineExceeded;
+
+    public GenerationCancelledException(String message, boolean deadlineExceeded) {
+        super(message);
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    /**
+     * @return whether generation stopped because it ran past its deadline
+     *         (rather than because it was cancelled)
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+}
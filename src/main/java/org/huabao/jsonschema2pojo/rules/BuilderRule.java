@@ -18,7 +18,9 @@ package org.huabao.jsonschema2pojo.rules;
 
 import java.util.Objects;
 
+import org.huabao.jsonschema2pojo.util.GenerationContext;
 import org.huabao.jsonschema2pojo.util.ReflectionHelper;
+import org.huabao.jsonschema2pojo.util.SymbolIndex;
 import org.huabao.jsonschema2pojo.Schema;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -63,6 +65,10 @@ public class BuilderRule implements Rule<JDefinedClass, JDefinedClass> {
       concreteBuilderClass = instanceClass._class(JMod.PUBLIC + JMod.STATIC, concreteBuilderClassName);
       concreteBuilderClass._extends(builderClass.narrow(instanceClass));
 
+      SymbolIndex symbolIndex = GenerationContext.of(instanceClass.owner()).getSymbolIndex();
+      symbolIndex.addNestedClass(builderClass);
+      symbolIndex.addNestedClass(concreteBuilderClass);
+
     } catch (JClassAlreadyExistsException e) {
       return e.getExistingClass();
     }
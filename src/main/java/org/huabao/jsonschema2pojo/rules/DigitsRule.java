@@ -48,15 +48,14 @@ public class DigitsRule implements Rule<JFieldVar, JFieldVar> {
     }
 
     private boolean isApplicableType(JFieldVar field) {
-        try {
-            Class<?> fieldClass = Class.forName(field.type().boxify().fullName());
-            // Support Strings and most number types except Double and Float, per docs on Digits annotations
-            return String.class.isAssignableFrom(fieldClass) ||
-                    (Number.class.isAssignableFrom(fieldClass) &&
-                            !Float.class.isAssignableFrom(fieldClass) && !Double.class.isAssignableFrom(fieldClass));
-        } catch (ClassNotFoundException ignore) {
+        Class<?> fieldClass = ruleFactory.getTypeClassificationCache().getLoadedClass(field.type().boxify().fullName());
+        if (fieldClass == null) {
             return false;
         }
+        // Support Strings and most number types except Double and Float, per docs on Digits annotations
+        return String.class.isAssignableFrom(fieldClass) ||
+                (Number.class.isAssignableFrom(fieldClass) &&
+                        !Float.class.isAssignableFrom(fieldClass) && !Double.class.isAssignableFrom(fieldClass));
     }
 
 }
@@ -162,7 +162,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         found._then()._return(cast(returnType, valueVar));
         JBlock notFound = found._else();
 
-        JMethod getAdditionalProperties = jclass.getMethod("getAdditionalProperties", new JType[] {});
+        JMethod getAdditionalProperties = getMethod(jclass, "getAdditionalProperties", new JType[] {});
         if (getAdditionalProperties != null) {
             notFound._return(cast(returnType, invoke(getAdditionalProperties).invoke("get").arg(nameParam)));
         } else {
@@ -192,7 +192,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         JClass extendsType = jclass._extends();
         if (extendsType != null && extendsType instanceof JDefinedClass) {
             JDefinedClass parentClass = (JDefinedClass) extendsType;
-            JMethod parentMethod = parentClass.getMethod(DEFINED_GETTER_NAME,
+            JMethod parentMethod = getMethod(parentClass, DEFINED_GETTER_NAME,
                     new JType[] { parentClass.owner()._ref(String.class), parentClass.owner()._ref(Object.class) });
             propertySwitch._default().body()
             ._return(_super().invoke(parentMethod).arg(nameParam).arg(notFoundParam));
@@ -225,7 +225,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
                 } else {
                     propertyConditional = propertyConditional._elseif(condition);
                 }
-                JMethod propertyGetter = jclass.getMethod(getGetterName(propertyName, propertyType, node), new JType[] {});
+                JMethod propertyGetter = getMethod(jclass, getGetterName(propertyName, propertyType, node), new JType[] {});
                 propertyConditional._then()._return(invoke(propertyGetter));
             }
         }
@@ -234,7 +234,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         JBlock lastBlock = propertyConditional == null ? body : propertyConditional._else();
         if (extendsType != null && extendsType instanceof JDefinedClass) {
             JDefinedClass parentClass = (JDefinedClass) extendsType;
-            JMethod parentMethod = parentClass.getMethod(DEFINED_GETTER_NAME,
+            JMethod parentMethod = getMethod(parentClass, DEFINED_GETTER_NAME,
                     new JType[] { parentClass.owner()._ref(String.class), parentClass.owner()._ref(Object.class) });
             lastBlock._return(_super().invoke(parentMethod).arg(nameParam).arg(notFoundParam));
         } else {
@@ -245,7 +245,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
     }
 
     private void addGetPropertyCase(JDefinedClass jclass, JSwitch propertySwitch, String propertyName, JType propertyType, JsonNode node) {
-        JMethod propertyGetter = jclass.getMethod(getGetterName(propertyName, propertyType, node), new JType[] {});
+        JMethod propertyGetter = getMethod(jclass, getGetterName(propertyName, propertyType, node), new JType[] {});
         propertySwitch._case(lit(propertyName)).body()
         ._return(invoke(propertyGetter));
     }
@@ -263,7 +263,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         JBlock notFound = body._if(JOp.not(invoke(internalSetMethod).arg(nameParam).arg(valueParam)))._then();
 
         // if we have additional properties, then put value.
-        JMethod getAdditionalProperties = jclass.getMethod("getAdditionalProperties", new JType[] {});
+        JMethod getAdditionalProperties = getMethod(jclass, "getAdditionalProperties", new JType[] {});
         if (getAdditionalProperties != null) {
             JType additionalPropertiesType = ((JClass) (getAdditionalProperties.type())).getTypeParameters().get(1);
             notFound.add(invoke(getAdditionalProperties).invoke("put").arg(nameParam)
@@ -290,7 +290,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         JBlock notFound = body._if(JOp.not(invoke(internalSetMethod).arg(nameParam).arg(valueParam)))._then();
 
         // if we have additional properties, then put value.
-        JMethod getAdditionalProperties = jclass.getMethod("getAdditionalProperties", new JType[] {});
+        JMethod getAdditionalProperties = getMethod(jclass, "getAdditionalProperties", new JType[] {});
         if (getAdditionalProperties != null) {
             JType additionalPropertiesType = ((JClass) (getAdditionalProperties.type())).getTypeParameters().get(1);
             notFound.add(invoke(getAdditionalProperties).invoke("put").arg(nameParam)
@@ -326,7 +326,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         JClass extendsType = jclass._extends();
         if (extendsType != null && extendsType instanceof JDefinedClass) {
             JDefinedClass parentClass = (JDefinedClass) extendsType;
-            JMethod parentMethod = parentClass.getMethod(DEFINED_SETTER_NAME,
+            JMethod parentMethod = getMethod(parentClass, DEFINED_SETTER_NAME,
                     new JType[] { parentClass.owner()._ref(String.class), parentClass.owner()._ref(Object.class) });
             defaultBlock._return(_super().invoke(parentMethod).arg(nameParam).arg(valueParam));
         } else {
@@ -362,7 +362,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
 
         if (extendsType != null && extendsType instanceof JDefinedClass) {
             JDefinedClass parentClass = (JDefinedClass) extendsType;
-            JMethod parentMethod = parentClass.getMethod(DEFINED_SETTER_NAME,
+            JMethod parentMethod = getMethod(parentClass, DEFINED_SETTER_NAME,
                     new JType[] { parentClass.owner()._ref(String.class), parentClass.owner()._ref(Object.class) });
             lastBlock._return(_super().invoke(parentMethod).arg(nameParam).arg(valueParam));
         } else {
@@ -371,13 +371,17 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
         return method;
     }
 
+    private JMethod getMethod(JDefinedClass jclass, String name, JType... argTypes) {
+        return ruleFactory.getReflectionHelper().getMethod(jclass, name, argTypes);
+    }
+
     private JMethod getInternalSetMethod(JDefinedClass jclass) {
-        return jclass.getMethod(DEFINED_SETTER_NAME,
+        return getMethod(jclass, DEFINED_SETTER_NAME,
                 new JType[] { jclass.owner().ref(String.class), jclass.owner().ref(Object.class) });
     }
 
     private JMethod getInternalGetMethod(JDefinedClass jclass) {
-        return jclass.getMethod(DEFINED_GETTER_NAME,
+        return getMethod(jclass, DEFINED_GETTER_NAME,
                 new JType[] { jclass.owner().ref(String.class), jclass.owner().ref(Object.class) });
     }
 
@@ -388,7 +392,7 @@ public class DynamicPropertiesRule implements Rule<JDefinedClass, JDefinedClass>
     }
 
     private void addSetProperty(JDefinedClass jclass, JBlock callSite, String propertyName, JType propertyType, JVar valueVar, JsonNode node) {
-        JMethod propertySetter = jclass.getMethod(getSetterName(propertyName, node), new JType[] { propertyType });
+        JMethod propertySetter = getMethod(jclass, getSetterName(propertyName, node), new JType[] { propertyType });
         JConditional isInstance = callSite._if(valueVar._instanceof(propertyType.boxify().erasure()));
         isInstance._then()
         .invoke(propertySetter).arg(cast(propertyType.boxify(), valueVar));
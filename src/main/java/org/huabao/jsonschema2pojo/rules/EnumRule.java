@@ -27,9 +27,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException.Budget;
 import org.huabao.jsonschema2pojo.exception.GenerationException;
 import org.huabao.jsonschema2pojo.model.EnumDefinition;
 import org.huabao.jsonschema2pojo.util.AnnotationHelper;
+import org.huabao.jsonschema2pojo.util.GenerationContext;
 import org.huabao.jsonschema2pojo.util.TypeUtil;
 import org.huabao.jsonschema2pojo.Annotator;
 import org.huabao.jsonschema2pojo.RuleLogger;
@@ -111,6 +113,9 @@ public class EnumRule implements Rule<JClassContainer, JType> {
             return type;
         }
 
+        GenerationContext context = GenerationContext.of(container.owner());
+        context.checkMembers(Budget.ENUM_CONSTANTS, nodeName, node.path("enum").size(), ruleFactory.getGenerationConfig().getMaxEnumConstants());
+
         JDefinedClass _enum;
         try {
             _enum = createEnum(node, nodeName, container);
@@ -119,6 +124,8 @@ public class EnumRule implements Rule<JClassContainer, JType> {
             return e.getExistingClass();
         }
 
+        context.addGeneratedClass(nodeName, ruleFactory.getGenerationConfig().getMaxGeneratedClasses());
+
         schema.setJavaTypeIfEmpty(_enum);
 
         // Add JavaDocs
@@ -357,7 +364,11 @@ public class EnumRule implements Rule<JClassContainer, JType> {
                 }
             } else {
                 try {
-                    return container._class(JMod.PUBLIC, getEnumName(nodeName, node, container), ClassType.ENUM);
+                    JDefinedClass _enum = container._class(JMod.PUBLIC, getEnumName(nodeName, node, container), ClassType.ENUM);
+                    if (_enum.outer() != null) {
+                        GenerationContext.of(_enum.owner()).getSymbolIndex().addNestedClass(_enum);
+                    }
+                    return _enum;
                 } catch (JClassAlreadyExistsException e) {
                     throw new GenerationException(e);
                 }
@@ -57,24 +57,23 @@ public class MinItemsMaxItemsRule implements Rule<JFieldVar, JFieldVar> {
     }
 
     private boolean isApplicableType(JFieldVar field) {
-        try {
-            String typeName = field.type().boxify().fullName();
-            // For collections, the full name will be something like 'java.util.List<String>' and we
-            // need just 'java.util.List'.
-            int genericsPos = typeName.indexOf('<');
-            if (genericsPos > -1) {
-                typeName = typeName.substring(0, genericsPos);
-            }
+        String typeName = field.type().boxify().fullName();
+        // For collections, the full name will be something like 'java.util.List<String>' and we
+        // need just 'java.util.List'.
+        int genericsPos = typeName.indexOf('<');
+        if (genericsPos > -1) {
+            typeName = typeName.substring(0, genericsPos);
+        }
 
-            Class<?> fieldClass = Class.forName(typeName);
-            return String.class.isAssignableFrom(fieldClass)
-                    || Collection.class.isAssignableFrom(fieldClass)
-                    || Map.class.isAssignableFrom(fieldClass)
-                    || Array.class.isAssignableFrom(fieldClass)
-                    || field.type().isArray();
-        } catch (ClassNotFoundException ignore) {
+        Class<?> fieldClass = ruleFactory.getTypeClassificationCache().getLoadedClass(typeName);
+        if (fieldClass == null) {
             return false;
         }
+        return String.class.isAssignableFrom(fieldClass)
+                || Collection.class.isAssignableFrom(fieldClass)
+                || Map.class.isAssignableFrom(fieldClass)
+                || Array.class.isAssignableFrom(fieldClass)
+                || field.type().isArray();
     }
 
 }
@@ -65,6 +65,9 @@ public class ObjectRule implements Rule<JPackage, JType> {
     @Override
     public JType apply(String nodeName, JsonNode node, JsonNode parent, JPackage _package, Schema schema) {
 
+        GenerationContext context = GenerationContext.of(_package.owner());
+        context.checkCancelled(nodeName);
+
         JType superType = reflectionHelper.getSuperType(nodeName, node, _package, schema);
         if (superType.isPrimitive() || reflectionHelper.isFinal(superType)) {
             return superType;
@@ -77,6 +80,8 @@ public class ObjectRule implements Rule<JPackage, JType> {
             return e.getExistingClass();
         }
 
+        context.addGeneratedClass(nodeName, ruleFactory.getGenerationConfig().getMaxGeneratedClasses());
+
         jclass._extends((JClass) superType);
 
         schema.setJavaTypeIfEmpty(jclass);
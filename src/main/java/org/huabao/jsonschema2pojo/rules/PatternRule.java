@@ -44,12 +44,7 @@ public class PatternRule implements Rule<JFieldVar, JFieldVar> {
     }
 
     private boolean isApplicableType(JFieldVar field) {
-        try {
-            Class<?> fieldClass = Class.forName(field.type().boxify().fullName());
-            return String.class.isAssignableFrom(fieldClass);
-        } catch (ClassNotFoundException ignore) {
-            return false;
-        }
+        return ruleFactory.getTypeClassificationCache().isString(field.type().boxify().fullName());
     }
 
 }
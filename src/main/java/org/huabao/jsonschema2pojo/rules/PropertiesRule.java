@@ -19,6 +19,8 @@ package org.huabao.jsonschema2pojo.rules;
 import java.util.Iterator;
 
 import org.huabao.jsonschema2pojo.Schema;
+import org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException.Budget;
+import org.huabao.jsonschema2pojo.util.GenerationContext;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -26,7 +28,6 @@ import org.huabao.codemodel.JBlock;
 import org.huabao.codemodel.JDefinedClass;
 import org.huabao.codemodel.JExpr;
 import org.huabao.codemodel.JMethod;
-import org.huabao.codemodel.JType;
 import org.huabao.codemodel.JVar;
 
 /**
@@ -64,6 +65,8 @@ public class PropertiesRule implements Rule<JDefinedClass, JDefinedClass> {
             node = JsonNodeFactory.instance.objectNode();
         }
 
+        GenerationContext.of(jclass.owner()).checkMembers(Budget.PROPERTIES_PER_CLASS, nodeName, node.size(), ruleFactory.getGenerationConfig().getMaxPropertiesPerClass());
+
         for (Iterator<String> properties = node.fieldNames(); properties.hasNext(); ) {
             String property = properties.next();
 
@@ -94,7 +97,7 @@ public class PropertiesRule implements Rule<JDefinedClass, JDefinedClass> {
     private void addOverrideBuilder(JDefinedClass thisJDefinedClass, JMethod parentBuilder, JVar parentParam) {
 
         // Confirm that this class doesn't already have a builder method matching the same name as the parentBuilder
-        if (thisJDefinedClass.getMethod(parentBuilder.name(), new JType[] {parentParam.type()}) == null) {
+        if (ruleFactory.getReflectionHelper().getMethod(thisJDefinedClass, parentBuilder.name(), parentParam.type()) == null) {
 
             JMethod builder = thisJDefinedClass.method(parentBuilder.mods().getValue(), thisJDefinedClass, parentBuilder.name());
             builder.annotate(Override.class);
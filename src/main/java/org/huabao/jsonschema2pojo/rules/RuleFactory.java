@@ -22,6 +22,7 @@ import org.huabao.jsonschema2pojo.Jackson2Annotator;
 import org.huabao.jsonschema2pojo.util.NameHelper;
 import org.huabao.jsonschema2pojo.util.ParcelableHelper;
 import org.huabao.jsonschema2pojo.util.ReflectionHelper;
+import org.huabao.jsonschema2pojo.util.TypeClassificationCache;
 import org.huabao.jsonschema2pojo.Annotator;
 import org.huabao.jsonschema2pojo.RuleLogger;
 import org.huabao.jsonschema2pojo.SchemaStore;
@@ -43,9 +44,38 @@ public class RuleFactory {
     private RuleLogger logger;
     private NameHelper nameHelper;
     private ReflectionHelper reflectionHelper;
+    private TypeClassificationCache typeClassificationCache = new TypeClassificationCache();
     private GenerationConfig generationConfig;
     private Annotator annotator;
     private SchemaStore schemaStore;
+    private volatile Rule<JType, JType> formatRule;
+
+    private final Rule<JPackage, JClass> arrayRule;
+    private final Rule<JDocCommentable, JDocComment> descriptionRule;
+    private final Rule<JDocCommentable, JDocComment> commentRule;
+    private final Rule<JClassContainer, JType> enumRule;
+    private final Rule<JPackage, JType> objectRule;
+    private final Rule<JDefinedClass, JDefinedClass> constructorRule;
+    private final Rule<JDefinedClass, JDefinedClass> requiredArrayRule;
+    private final Rule<JDefinedClass, JDefinedClass> propertiesRule;
+    private final Rule<JDefinedClass, JDefinedClass> propertyRule;
+    private final Rule<JDocCommentable, JDocCommentable> requiredRule;
+    private final Rule<JDocCommentable, JDocCommentable> notRequiredRule;
+    private final Rule<JClassContainer, JType> typeRule;
+    private final Rule<JDefinedClass, JDefinedClass> additionalPropertiesRule;
+    private final Rule<JDocCommentable, JDocComment> titleRule;
+    private final Rule<JClassContainer, JType> schemaRule;
+    private final Rule<JFieldVar, JFieldVar> defaultRule;
+    private final Rule<JFieldVar, JFieldVar> minimumMaximumRule;
+    private final Rule<JFieldVar, JFieldVar> minItemsMaxItemsRule;
+    private final Rule<JFieldVar, JFieldVar> minLengthMaxLengthRule;
+    private final Rule<JFieldVar, JFieldVar> digitsRule;
+    private final Rule<JFieldVar, JFieldVar> patternRule;
+    private final Rule<JFieldVar, JFieldVar> validRule;
+    private final Rule<JType, JType> mediaRule;
+    private final Rule<JDefinedClass, JDefinedClass> dynamicPropertiesRule;
+    private final Rule<JDefinedClass, JDefinedClass> builderRule;
+    private final Rule<JDocCommentable, JDocComment> javaNameRule;
 
     /**
      * Create a new rule factory with the given generation config options.
@@ -66,6 +96,34 @@ public class RuleFactory {
         this.schemaStore = schemaStore;
         this.nameHelper = new NameHelper(generationConfig);
         this.reflectionHelper = new ReflectionHelper(this);
+
+        // rules are stateless (any config is read as they are applied), so each is created once and shared
+        this.arrayRule = new ArrayRule(this);
+        this.descriptionRule = new DescriptionRule();
+        this.commentRule = new CommentRule();
+        this.enumRule = new EnumRule(this);
+        this.objectRule = new ObjectRule(this, new ParcelableHelper(), reflectionHelper);
+        this.constructorRule = new ConstructorRule(this, reflectionHelper);
+        this.requiredArrayRule = new RequiredArrayRule(this);
+        this.propertiesRule = new PropertiesRule(this);
+        this.propertyRule = new PropertyRule(this);
+        this.requiredRule = new RequiredRule(this);
+        this.notRequiredRule = new NotRequiredRule(this);
+        this.typeRule = new TypeRule(this);
+        this.additionalPropertiesRule = new AdditionalPropertiesRule(this);
+        this.titleRule = new TitleRule();
+        this.schemaRule = new SchemaRule(this);
+        this.defaultRule = new DefaultRule(this);
+        this.minimumMaximumRule = new MinimumMaximumRule(this);
+        this.minItemsMaxItemsRule = new MinItemsMaxItemsRule(this);
+        this.minLengthMaxLengthRule = new MinLengthMaxLengthRule(this);
+        this.digitsRule = new DigitsRule(this);
+        this.patternRule = new PatternRule(this);
+        this.validRule = new ValidRule(this);
+        this.mediaRule = new MediaRule();
+        this.dynamicPropertiesRule = new DynamicPropertiesRule(this);
+        this.builderRule = new BuilderRule(this, reflectionHelper);
+        this.javaNameRule = new JavaNameRule();
     }
 
     /**
@@ -84,7 +142,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "array" declaration.
      */
     public Rule<JPackage, JClass> getArrayRule() {
-        return new ArrayRule(this);
+        return arrayRule;
     }
 
     /**
@@ -94,7 +152,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "description" declaration.
      */
     public Rule<JDocCommentable, JDocComment> getDescriptionRule() {
-        return new DescriptionRule();
+        return descriptionRule;
     }
 
     /**
@@ -104,7 +162,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "$comment" declaration.
      */
     public Rule<JDocCommentable, JDocComment> getCommentRule() {
-        return new CommentRule();
+        return commentRule;
     }
 
     /**
@@ -114,7 +172,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "enum" declaration.
      */
     public Rule<JClassContainer, JType> getEnumRule() {
-        return new EnumRule(this);
+        return enumRule;
     }
 
     /**
@@ -124,7 +182,13 @@ public class RuleFactory {
      * @return a schema rule that can handle the "format" declaration.
      */
     public Rule<JType, JType> getFormatRule() {
-        return new FormatRule(this);
+        Rule<JType, JType> rule = formatRule;
+        if (rule == null) {
+            // the format mapping depends on the config, so it is built on first use after each config change
+            rule = new FormatRule(this);
+            formatRule = rule;
+        }
+        return rule;
     }
 
     /**
@@ -134,7 +198,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "object" declaration.
      */
     public Rule<JPackage, JType> getObjectRule() {
-        return new ObjectRule(this, new ParcelableHelper(), reflectionHelper);
+        return objectRule;
     }
 
     /**
@@ -142,9 +206,8 @@ public class RuleFactory {
      *
      * @return a schema rule that can handle the "object" declaration.
      */
-    public Rule<JDefinedClass, JDefinedClass> getConstructorRule()
-    {
-        return new ConstructorRule(this, reflectionHelper);
+    public Rule<JDefinedClass, JDefinedClass> getConstructorRule() {
+        return constructorRule;
     }
 
     /**
@@ -153,7 +216,9 @@ public class RuleFactory {
      *
      * @return a schema rule that can handle the "required" declaration.
      */
-    public Rule<JDefinedClass, JDefinedClass> getRequiredArrayRule() { return new RequiredArrayRule(this); }
+    public Rule<JDefinedClass, JDefinedClass> getRequiredArrayRule() {
+        return requiredArrayRule;
+    }
 
     /**
      * Provides a rule instance that should be applied when a "properties"
@@ -162,7 +227,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "properties" declaration.
      */
     public Rule<JDefinedClass, JDefinedClass> getPropertiesRule() {
-        return new PropertiesRule(this);
+        return propertiesRule;
     }
 
     /**
@@ -173,7 +238,7 @@ public class RuleFactory {
      * @return a schema rule that can handle a property declaration.
      */
     public Rule<JDefinedClass, JDefinedClass> getPropertyRule() {
-        return new PropertyRule(this);
+        return propertyRule;
     }
 
     /**
@@ -183,7 +248,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "required" declaration.
      */
     public Rule<JDocCommentable, JDocCommentable> getRequiredRule() {
-        return new RequiredRule(this);
+        return requiredRule;
     }
 
     /**
@@ -193,7 +258,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "required" declaration.
      */
     public Rule<JDocCommentable, JDocCommentable> getNotRequiredRule() {
-        return new NotRequiredRule(this);
+        return notRequiredRule;
     }
 
     /**
@@ -205,7 +270,7 @@ public class RuleFactory {
      *         given schema node.
      */
     public Rule<JClassContainer, JType> getTypeRule() {
-        return new TypeRule(this);
+        return typeRule;
     }
 
     /**
@@ -216,7 +281,7 @@ public class RuleFactory {
      *         declaration.
      */
     public Rule<JDefinedClass, JDefinedClass> getAdditionalPropertiesRule() {
-        return new AdditionalPropertiesRule(this);
+        return additionalPropertiesRule;
     }
 
     /**
@@ -226,7 +291,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "title" declaration.
      */
     public Rule<JDocCommentable, JDocComment> getTitleRule() {
-        return new TitleRule();
+        return titleRule;
     }
 
     /**
@@ -236,7 +301,7 @@ public class RuleFactory {
      * @return a schema rule that can handle a schema declaration.
      */
     public Rule<JClassContainer, JType> getSchemaRule() {
-        return new SchemaRule(this);
+        return schemaRule;
     }
 
     /**
@@ -247,7 +312,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getDefaultRule() {
-        return new DefaultRule(this);
+        return defaultRule;
     }
 
     /**
@@ -258,7 +323,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getMinimumMaximumRule() {
-        return new MinimumMaximumRule(this);
+        return minimumMaximumRule;
     }
 
     /**
@@ -269,7 +334,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getMinItemsMaxItemsRule() {
-        return new MinItemsMaxItemsRule(this);
+        return minItemsMaxItemsRule;
     }
 
     /**
@@ -280,7 +345,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getMinLengthMaxLengthRule() {
-        return new MinLengthMaxLengthRule(this);
+        return minLengthMaxLengthRule;
     }
 
     /**
@@ -291,7 +356,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "digits" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getDigitsRule() {
-        return new DigitsRule(this);
+        return digitsRule;
     }
 
     /**
@@ -301,7 +366,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "pattern" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getPatternRule() {
-        return new PatternRule(this);
+        return patternRule;
     }
 
     /**
@@ -312,7 +377,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "default" declaration.
      */
     public Rule<JFieldVar, JFieldVar> getValidRule() {
-        return new ValidRule(this);
+        return validRule;
     }
 
     /**
@@ -336,6 +401,7 @@ public class RuleFactory {
     public void setGenerationConfig(final GenerationConfig generationConfig) {
         this.generationConfig = generationConfig;
         this.nameHelper = new NameHelper(generationConfig);
+        this.formatRule = null;
     }
 
     /**
@@ -411,10 +477,45 @@ public class RuleFactory {
         return nameHelper;
     }
 
+    /**
+     * The name helper used to generate normalized Class and field names. Name
+     * helpers only depend on the generation config, so one may be shared by
+     * factories that use the same config.
+     *
+     * @param nameHelper
+     *            name helper
+     */
+    public void setNameHelper(NameHelper nameHelper) {
+        this.nameHelper = nameHelper;
+    }
+
     public ReflectionHelper getReflectionHelper()    {
         return reflectionHelper;
     }
 
+    /**
+     * Gets the cache used to look up and classify existing Java types by name
+     * while types are generated.
+     *
+     * @return the type classification cache shared by the rules created by
+     *         this factory
+     */
+    public TypeClassificationCache getTypeClassificationCache() {
+        return typeClassificationCache;
+    }
+
+    /**
+     * The cache used to look up and classify existing Java types by name. The
+     * cache is thread safe, but never forgets a name, so it should live no
+     * longer than the generation run (or request) this factory is used for.
+     *
+     * @param typeClassificationCache
+     *            type classification cache
+     */
+    public void setTypeClassificationCache(TypeClassificationCache typeClassificationCache) {
+        this.typeClassificationCache = typeClassificationCache;
+    }
+
 
     /**
      * Provides a rule instance that should be applied when a "media"
@@ -423,7 +524,7 @@ public class RuleFactory {
      * @return a schema rule that can handle the "media" declaration.
      */
     public Rule<JType, JType> getMediaRule() {
-        return new MediaRule();
+        return mediaRule;
     }
 
     /**
@@ -431,15 +532,15 @@ public class RuleFactory {
      * building properties.
      */
     public Rule<JDefinedClass, JDefinedClass> getDynamicPropertiesRule() {
-        return new DynamicPropertiesRule(this);
+        return dynamicPropertiesRule;
     }
 
-    public Rule<JDefinedClass, JDefinedClass> getBuilderRule(){
-        return new BuilderRule(this, reflectionHelper);
+    public Rule<JDefinedClass, JDefinedClass> getBuilderRule() {
+        return builderRule;
     }
 
     public Rule<JDocCommentable, JDocComment> getJavaNameRule() {
-        return new JavaNameRule();
+        return javaNameRule;
     }
 
 }
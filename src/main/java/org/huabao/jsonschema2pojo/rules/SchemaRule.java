@@ -19,11 +19,13 @@ package org.huabao.jsonschema2pojo.rules;
 import static org.apache.commons.lang3.StringUtils.*;
 
 import java.io.UnsupportedEncodingException;
+import java.net.URI;
 import java.net.URLDecoder;
 
 import org.huabao.jsonschema2pojo.exception.GenerationException;
 import org.huabao.jsonschema2pojo.Jsonschema2Pojo;
 import org.huabao.jsonschema2pojo.Schema;
+import org.huabao.jsonschema2pojo.util.GenerationContext;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import org.huabao.codemodel.JClassContainer;
@@ -63,6 +65,9 @@ public class SchemaRule implements Rule<JClassContainer, JType> {
     @Override
     public JType apply(String nodeName, JsonNode schemaNode, JsonNode parent, JClassContainer generatableType, Schema schema) {
 
+        GenerationContext context = GenerationContext.of(generatableType.owner());
+        context.checkCancelled(nodeName);
+
         if (schemaNode.has("$ref")) {
             final String nameFromRef = nameFromRef(schemaNode.get("$ref").asText());
 
@@ -76,18 +81,44 @@ public class SchemaRule implements Rule<JClassContainer, JType> {
             return apply(nameFromRef != null ? nameFromRef : nodeName, schemaNode, parent, generatableType, schema);
         }
 
+        String structureKey = null;
+        if (ruleFactory.getGenerationConfig().isDeduplicateInlineTypes() && schemaNode != schema.getContent() && isObjectOrEnum(schemaNode)) {
+            structureKey = context.getInlineTypeIndex().structureKey(schemaNode, generatableType.getPackage().name(), documentId(schema));
+            JType existing = context.getInlineTypeIndex().get(structureKey);
+            if (existing != null) {
+                return existing;
+            }
+        }
+
         schema = schema.deriveChildSchema(schemaNode);
 
         JType javaType;
-        if (schemaNode.has("enum")) {
-            javaType = ruleFactory.getEnumRule().apply(nodeName, schemaNode, parent, generatableType, schema);
-        } else {
-            javaType = ruleFactory.getTypeRule().apply(nodeName, schemaNode, parent, generatableType.getPackage(), schema);
+        context.enterSchema(nodeName, ruleFactory.getGenerationConfig().getMaxNestingDepth());
+        try {
+            if (schemaNode.has("enum")) {
+                javaType = ruleFactory.getEnumRule().apply(nodeName, schemaNode, parent, generatableType, schema);
+            } else {
+                javaType = ruleFactory.getTypeRule().apply(nodeName, schemaNode, parent, generatableType.getPackage(), schema);
+            }
+        } finally {
+            context.exitSchema();
         }
         schema.setJavaTypeIfEmpty(javaType);
 
+        if (structureKey != null) {
+            context.getInlineTypeIndex().put(structureKey, javaType);
+        }
+
         return javaType;
     }
+
+    private boolean isObjectOrEnum(JsonNode schemaNode) {
+        return schemaNode.has("enum") || "object".equals(schemaNode.path("type").asText()) || schemaNode.path("properties").size() > 0;
+    }
+
+    private URI documentId(Schema schema) {
+        return schema.getId() == null ? null : URI.create(substringBefore(schema.getId().toString(), "#"));
+    }
     
     private String nameFromRef(String ref) {
         
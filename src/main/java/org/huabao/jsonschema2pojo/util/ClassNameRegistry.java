@@ -0,0 +1,79 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.huabao.codemodel.JClassAlreadyExistsException;
+import org.huabao.codemodel.JDefinedClass;
+import org.huabao.codemodel.JPackage;
+
+/**
+ * Hands out unique class names within the packages of a code model, following
+ * the naming scheme of {@link MakeUniqueClassName} (<code>Item</code>,
+ * <code>Item__1</code>, <code>Item__2</code>, ...).
+ * <p>
+ * For each package and requested name, the registry remembers how far along
+ * that sequence the last free name was found, so the next request starts
+ * there instead of probing every taken name again. Classes are never removed
+ * from a package during generation, so the names skipped this way are always
+ * still taken.
+ */
+public class ClassNameRegistry {
+
+    private final Map<String, Map<String, Integer>> attemptsByPackage = new HashMap<>();
+
+    /**
+     * Finds the first name in the sequence starting at the given name that is
+     * not yet used by a class in the given package.
+     *
+     * @param className
+     *            the preferred class name
+     * @param _package
+     *            the package the class will be created in
+     * @return the given name, or the first unused name derived from it
+     */
+    public synchronized String getUniqueClassName(String className, JPackage _package) {
+        Map<String, Integer> attempts = attemptsByPackage.computeIfAbsent(_package.name(), p -> new HashMap<>());
+
+        int attempt = attempts.getOrDefault(className, 0);
+        String candidate = MakeUniqueClassName.makeUnique(className, attempt);
+        while (_package._getClass(candidate) != null || !isFree(candidate, _package)) {
+            candidate = MakeUniqueClassName.makeUnique(className, ++attempt);
+        }
+
+        attempts.put(className, attempt);
+        return candidate;
+    }
+
+    /**
+     * Confirms that a class with the given name can be created, which (on
+     * case-insensitive file systems) also requires that no name differing
+     * only by case is taken.
+     */
+    private static boolean isFree(String className, JPackage _package) {
+        try {
+            JDefinedClass _class = _package._class(className);
+            _package.remove(_class);
+            return true;
+        } catch (JClassAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+}
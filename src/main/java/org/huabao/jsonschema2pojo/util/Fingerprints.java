@@ -0,0 +1,201 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import static java.util.Arrays.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.huabao.jsonschema2pojo.GenerationConfig;
+import org.huabao.jsonschema2pojo.exception.GenerationException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Creates stable content hashes, used to detect when inputs to code generation
+ * have changed.
+ */
+public class Fingerprints {
+
+    private static final JsonFactory JSON_FACTORY = new ObjectMapper().getFactory();
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final Set<String> IGNORED_OPTIONS = new HashSet<>(asList(
+            "getSource", "getFileFilter", "getGenerationThreads", "getContentCacheDirectory", "getContentCacheMaxBytes",
+            "getHttpConnectTimeout", "getHttpReadTimeout", "getHttpFetchThreads", "getHttpCacheDirectory",
+            "isStreamingExampleInference", "isWriteOnlyChangedFiles"));
+
+    /**
+     * Hashes the given content.
+     *
+     * @param content
+     *            the bytes to hash
+     * @return a hex encoded SHA-256 hash of the content
+     */
+    public static String of(byte[] content) {
+        return toHex(sha256().digest(content));
+    }
+
+    /**
+     * Hashes the canonical form of the given JSON content: object properties
+     * are sorted by name and no whitespace is written, so documents that only
+     * differ in property order or formatting have the same hash.
+     *
+     * @param content
+     *            the content to hash
+     * @return a hex encoded SHA-256 hash of the canonical content
+     */
+    public static String of(JsonNode content) {
+        MessageDigest digest = sha256();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(new DigestOutputStream(NullOutputStream.NULL_OUTPUT_STREAM, digest))) {
+            writeCanonical(generator, content);
+        } catch (IOException e) {
+            throw new GenerationException("Unable to hash JSON content", e);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static void writeCanonical(JsonGenerator generator, JsonNode node) throws IOException {
+        if (node.isObject()) {
+            List<String> fieldNames = new ArrayList<>();
+            for (Iterator<String> names = node.fieldNames(); names.hasNext();) {
+                fieldNames.add(names.next());
+            }
+            Collections.sort(fieldNames);
+
+            generator.writeStartObject();
+            for (String fieldName : fieldNames) {
+                generator.writeFieldName(fieldName);
+                writeCanonical(generator, node.get(fieldName));
+            }
+            generator.writeEndObject();
+        } else if (node.isArray()) {
+            generator.writeStartArray();
+            for (JsonNode element : node) {
+                writeCanonical(generator, element);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeTree(node);
+        }
+    }
+
+    /**
+     * Hashes the values of every configuration option that influences the
+     * generated code. Options that only decide which documents are read, or
+     * how the work is carried out (threads, caches), are excluded. Only values
+     * with a well-defined string form (strings, numbers, booleans, characters,
+     * enums, classes, files, URLs and URIs, and arrays and maps of these) are
+     * hashed, so that the same configuration always has the same hash.
+     *
+     * @param config
+     *            the configuration to hash
+     * @return a hex encoded SHA-256 hash of the configuration values
+     * @throws GenerationException
+     *             if an option has a value of any other type
+     */
+    public static String of(GenerationConfig config) {
+        Method[] methods = GenerationConfig.class.getMethods();
+        Arrays.sort(methods, Comparator.comparing(Method::getName));
+
+        MessageDigest digest = sha256();
+        for (Method method : methods) {
+            if (method.getParameterCount() != 0 || IGNORED_OPTIONS.contains(method.getName())) {
+                continue;
+            }
+
+            try {
+                String value = method.getName() + "=" + toString(method.getName(), method.invoke(config)) + "\n";
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new GenerationException("Unable to read configuration option " + method.getName(), e);
+            }
+        }
+
+        return toHex(digest.digest());
+    }
+
+    private static String toString(String option, Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof File || value instanceof URL || value instanceof URI) {
+            return String.valueOf(value);
+        } else if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        } else if (value instanceof Class) {
+            return ((Class<?>) value).getName();
+        } else if (value instanceof char[]) {
+            return Arrays.toString((char[]) value);
+        } else if (value instanceof Object[]) {
+            List<String> elements = new ArrayList<>();
+            for (Object element : (Object[]) value) {
+                elements.add(toString(option, element));
+            }
+            return elements.toString();
+        } else if (value instanceof Map) {
+            Map<String, String> entries = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                entries.put(toString(option, entry.getKey()), toString(option, entry.getValue()));
+            }
+            return entries.toString();
+        } else {
+            // the string form of other objects (such as an identity hash code) may differ from run to run
+            throw new GenerationException("Unable to hash configuration option " + option + ", values of type " + value.getClass().getName() + " have no stable form");
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new GenerationException("SHA-256 is not available", e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+}
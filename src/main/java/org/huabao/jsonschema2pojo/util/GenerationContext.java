@@ -0,0 +1,222 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.huabao.codemodel.JCodeModel;
+import org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException;
+import org.huabao.jsonschema2pojo.exception.GenerationBudgetExceededException.Budget;
+import org.huabao.jsonschema2pojo.exception.GenerationCancelledException;
+
+/**
+ * State that lives exactly as long as the code model that types are being
+ * generated into, such as indexes that make repeated lookups against that
+ * code model cheap. A context is created on first use and discarded along
+ * with its code model; contexts never hold a strong reference back to their
+ * code model.
+ */
+public class GenerationContext {
+
+    private static final Map<JCodeModel, GenerationContext> CONTEXTS = new WeakHashMap<>();
+
+    private static final ThreadLocal<GenerationContext> LAST_CONTEXT = new ThreadLocal<>();
+
+    private final WeakReference<JCodeModel> codeModel;
+
+    private final ClassNameRegistry classNameRegistry = new ClassNameRegistry();
+
+    private final SymbolIndex symbolIndex = new SymbolIndex();
+
+    private final ResolvedTypeCache resolvedTypeCache = new ResolvedTypeCache();
+
+    private volatile boolean cancelled;
+
+    private volatile boolean hasDeadline;
+
+    private volatile long deadline;
+
+    private final Deque<String> nodePath = new ArrayDeque<>();
+
+    private int generatedClasses;
+
+    private final InlineTypeIndex inlineTypeIndex = new InlineTypeIndex();
+
+    /**
+     * Gets the context for the given code model, creating it if necessary.
+     *
+     * @param codeModel
+     *            the code model that types are being generated into
+     * @return the context for the given code model
+     */
+    public static GenerationContext of(JCodeModel codeModel) {
+        // a thread generates into one code model at a time, so the context it
+        // used last is almost always the one wanted, and is found without the lock
+        GenerationContext last = LAST_CONTEXT.get();
+        if (last != null && last.codeModel.get() == codeModel) {
+            return last;
+        }
+
+        GenerationContext context;
+        synchronized (CONTEXTS) {
+            context = CONTEXTS.computeIfAbsent(codeModel, GenerationContext::new);
+        }
+        LAST_CONTEXT.set(context);
+        return context;
+    }
+
+    private GenerationContext(JCodeModel codeModel) {
+        this.codeModel = new WeakReference<>(codeModel);
+    }
+
+    public ClassNameRegistry getClassNameRegistry() {
+        return classNameRegistry;
+    }
+
+    public SymbolIndex getSymbolIndex() {
+        return symbolIndex;
+    }
+
+    public ResolvedTypeCache getResolvedTypeCache() {
+        return resolvedTypeCache;
+    }
+
+    public InlineTypeIndex getInlineTypeIndex() {
+        return inlineTypeIndex;
+    }
+
+    /**
+     * Sets the time by which generation into this code model must finish.
+     *
+     * @param deadline
+     *            the deadline, as a {@link System#nanoTime()} value
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+        this.hasDeadline = true;
+    }
+
+    /**
+     * Asks for generation into this code model to stop, the next time
+     * {@link #checkCancelled(String)} is called.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Called as types are generated to stop generation once it has been
+     * cancelled, has run past its deadline, or the generating thread has been
+     * interrupted.
+     *
+     * @param nodeName
+     *            the name of the node being generated, reported in the
+     *            exception
+     * @throws GenerationCancelledException
+     *             if generation must stop
+     */
+    public void checkCancelled(String nodeName) {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new GenerationCancelledException("Generation was cancelled while generating " + nodeName, false);
+        }
+        if (hasDeadline && System.nanoTime() - deadline > 0) {
+            throw new GenerationCancelledException("Generation ran past its deadline while generating " + nodeName, true);
+        }
+    }
+
+    /**
+     * Called as each schema starts being generated, to keep track of how
+     * deeply schemas are nested. Must be paired with a call to
+     * {@link #exitSchema()} once the schema has been generated. Generation
+     * into a code model happens on one thread at a time, so this needs no
+     * locking.
+     *
+     * @param nodeName
+     *            the name of the node being generated
+     * @param maxNestingDepth
+     *            the maximum number of schemas that may be nested, or
+     *            <code>0</code> for no limit
+     * @throws GenerationBudgetExceededException
+     *             if the schema is nested too deeply
+     */
+    public void enterSchema(String nodeName, int maxNestingDepth) {
+        if (maxNestingDepth > 0 && nodePath.size() >= maxNestingDepth) {
+            throw new GenerationBudgetExceededException(Budget.NESTING_DEPTH, maxNestingDepth, getNodePath() + "/" + nodeName);
+        }
+        nodePath.addLast(nodeName);
+    }
+
+    /**
+     * Called once the schema passed to the matching call to
+     * {@link #enterSchema(String, int)} has been generated.
+     */
+    public void exitSchema() {
+        nodePath.removeLast();
+    }
+
+    /**
+     * Counts a class (or enum) that has been generated into this code model.
+     *
+     * @param nodeName
+     *            the name of the node the class was generated for
+     * @param maxGeneratedClasses
+     *            the maximum number of classes that may be generated, or
+     *            <code>0</code> for no limit
+     * @throws GenerationBudgetExceededException
+     *             if too many classes have been generated
+     */
+    public void addGeneratedClass(String nodeName, int maxGeneratedClasses) {
+        generatedClasses++;
+        if (maxGeneratedClasses > 0 && generatedClasses > maxGeneratedClasses) {
+            throw new GenerationBudgetExceededException(Budget.GENERATED_CLASSES, maxGeneratedClasses, getLocation(nodeName));
+        }
+    }
+
+    /**
+     * Checks the number of members (properties or enum constants) of the
+     * class being generated.
+     *
+     * @param budget
+     *            the budget to check
+     * @param nodeName
+     *            the name of the node being generated
+     * @param count
+     *            the number of members
+     * @param limit
+     *            the maximum number of members, or <code>0</code> for no limit
+     * @throws GenerationBudgetExceededException
+     *             if there are too many members
+     */
+    public void checkMembers(Budget budget, String nodeName, int count, int limit) {
+        if (limit > 0 && count > limit) {
+            throw new GenerationBudgetExceededException(budget, limit, getLocation(nodeName));
+        }
+    }
+
+    private String getLocation(String nodeName) {
+        return nodePath.isEmpty() ? nodeName : getNodePath();
+    }
+
+    private String getNodePath() {
+        return String.join("/", nodePath);
+    }
+
+}
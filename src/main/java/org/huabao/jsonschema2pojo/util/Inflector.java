@@ -20,8 +20,13 @@
 package org.huabao.jsonschema2pojo.util;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,16 +38,21 @@ import java.util.regex.Pattern;
  */
 public class Inflector {
 
-    private final List<RuleAndReplacement> plurals;
-    private final List<RuleAndReplacement> singulars;
-    private final List<String> uncountables;
+    private static final int MAX_CACHED_WORDS = 8192;
+
+    private final RuleSet plurals;
+    private final RuleSet singulars;
+    private final Set<String> uncountables;
+
+    private final Map<String, String> pluralCache = new ConcurrentHashMap<>();
+    private final Map<String, String> singularCache = new ConcurrentHashMap<>();
 
     private static Inflector instance  = createDefaultBuilder().build();
 
     private Inflector(Builder builder) {
-        plurals = Collections.unmodifiableList(builder.plurals);
-        singulars = Collections.unmodifiableList(builder.singulars);
-        uncountables = Collections.unmodifiableList(builder.uncountables);
+        plurals = new RuleSet(builder.plurals);
+        singulars = new RuleSet(builder.singulars);
+        uncountables = new HashSet<>(builder.uncountables);
     }
 
     public static Builder createDefaultBuilder()
@@ -120,31 +130,24 @@ public class Inflector {
     }
 
     public String pluralize(String word) {
-        if (uncountables.contains(word.toLowerCase())) {
-            return word;
-        }
-        return replaceWithFirstRule(word, plurals);
+        return inflect(word, plurals, pluralCache);
     }
 
     public String singularize(String word) {
-        if (uncountables.contains(word.toLowerCase())) {
-            return word;
-        }
-        return replaceWithFirstRule(word, singulars);
+        return inflect(word, singulars, singularCache);
     }
 
-    private static String replaceWithFirstRule(String word, List<RuleAndReplacement> ruleAndReplacements) {
-
-        for (RuleAndReplacement rar : ruleAndReplacements) {
-            String replacement = rar.getReplacement();
+    private String inflect(String word, RuleSet rules, Map<String, String> cache) {
+        String result = cache.get(word);
+        if (result == null) {
+            result = uncountables.contains(word.toLowerCase()) ? word : rules.replaceWithFirstRule(word);
 
-            // Return if we find a match.
-            Matcher matcher = rar.getPattern().matcher(word);
-            if (matcher.find()) {
-                return matcher.replaceAll(replacement);
+            if (cache.size() >= MAX_CACHED_WORDS) {
+                cache.clear();
             }
+            cache.put(word, result);
         }
-        return word;
+        return result;
     }
 
     public static Builder builder()
@@ -152,14 +155,201 @@ public class Inflector {
         return new Builder();
     }
 
+    /**
+     * An ordered list of rules, where the first rule that matches a word is
+     * applied. Most rules can only match words ending in some literal suffix
+     * (e.g. <code>([lr])ves$</code> needs "ves"), and some are plain literals
+     * that can match anywhere in a word. Both are indexed up front: a single
+     * pass over the end of a word, through a trie of reversed suffixes, finds
+     * which suffix rules may match, so the regex of a rule is only tried once
+     * a match is possible. Rules that are neither are always tried.
+     */
+    private static class RuleSet {
+        private final List<RuleAndReplacement> rules;
+        private final SuffixNode suffixes = new SuffixNode();
+        private final BitSet suffixRules = new BitSet();
+
+        RuleSet(List<RuleAndReplacement> rules) {
+            this.rules = new ArrayList<>(rules);
+
+            for (int i = 0; i < this.rules.size(); i++) {
+                String suffix = this.rules.get(i).getRequiredSuffix();
+                if (suffix != null) {
+                    suffixes.add(suffix, suffix.length() - 1, i);
+                    suffixRules.set(i);
+                }
+            }
+        }
+
+        String replaceWithFirstRule(String word) {
+            // '$' also matches before a final line terminator, which the suffixes don't account for
+            boolean indexed = word.isEmpty() || !isLineTerminator(word.charAt(word.length() - 1));
+            BitSet possibleSuffixRules = indexed ? suffixes.matching(word) : null;
+            String lowerCaseWord = indexed ? toLowerCaseAscii(word) : null;
+
+            for (int i = 0; i < rules.size(); i++) {
+                RuleAndReplacement rar = rules.get(i);
+
+                if (indexed) {
+                    if (suffixRules.get(i) ? !possibleSuffixRules.get(i) : !rar.mayMatch(lowerCaseWord)) {
+                        continue;
+                    }
+                }
+
+                // Return if we find a match.
+                Matcher matcher = rar.getPattern().matcher(word);
+                if (matcher.find()) {
+                    return matcher.replaceAll(rar.getReplacement());
+                }
+            }
+            return word;
+        }
+
+        private static boolean isLineTerminator(char c) {
+            return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+        }
+    }
+
+    private static class SuffixNode {
+        private final Map<Character, SuffixNode> children = new HashMap<>();
+        private final BitSet rules = new BitSet();
+
+        void add(String suffix, int position, int rule) {
+            if (position < 0) {
+                rules.set(rule);
+            } else {
+                children.computeIfAbsent(suffix.charAt(position), c -> new SuffixNode()).add(suffix, position - 1, rule);
+            }
+        }
+
+        BitSet matching(String word) {
+            BitSet matching = new BitSet();
+            SuffixNode node = this;
+            for (int i = word.length() - 1; i >= 0 && node != null; i--) {
+                node = node.children.get(toLowerCaseAscii(word.charAt(i)));
+                if (node != null) {
+                    matching.or(node.rules);
+                }
+            }
+            return matching;
+        }
+    }
+
+    /**
+     * Folds case the same way as a {@link Pattern#CASE_INSENSITIVE} pattern
+     * (without {@link Pattern#UNICODE_CASE}), which only folds US-ASCII.
+     */
+    private static char toLowerCaseAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static String toLowerCaseAscii(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = toLowerCaseAscii(chars[i]);
+        }
+        return new String(chars);
+    }
+
     // Ugh, no open structs in Java (not-natively at least).
     private static class RuleAndReplacement {
         private final String replacement;
         private final Pattern pattern;
+        private final String requiredSuffix;
+        private final String literal;
 
         public RuleAndReplacement(String rule, String replacement) {
             this.replacement = replacement;
             this.pattern = Pattern.compile(rule, Pattern.CASE_INSENSITIVE);
+            this.literal = isLiteral(rule) ? toLowerCaseAscii(rule) : null;
+            this.requiredSuffix = literal == null ? requiredSuffix(rule) : null;
+        }
+
+        /**
+         * @return the (lower case) letters every match must end the word
+         *         with, or <code>null</code> if the rule isn't anchored to the
+         *         end of the word by some literal suffix
+         */
+        public String getRequiredSuffix() {
+            return requiredSuffix;
+        }
+
+        /**
+         * @return <code>false</code> if this rule is a literal the (lower
+         *         case) word doesn't contain, <code>true</code> if it may match
+         */
+        public boolean mayMatch(String lowerCaseWord) {
+            return literal == null || lowerCaseWord.contains(literal);
+        }
+
+        private static boolean isLiteral(String rule) {
+            for (int i = 0; i < rule.length(); i++) {
+                if (!Character.isLetterOrDigit(rule.charAt(i)) || rule.charAt(i) > 0x7F) {
+                    return false;
+                }
+            }
+            return !rule.isEmpty();
+        }
+
+        private static String requiredSuffix(String rule) {
+            if (!rule.endsWith("$") || hasTopLevelAlternation(rule)) {
+                return null;
+            }
+
+            StringBuilder suffix = new StringBuilder();
+            int end = rule.length() - 1;
+            while (true) {
+                int start = end;
+                while (start > 0 && isAsciiLetterOrDigit(rule.charAt(start - 1))) {
+                    start--;
+                }
+                if (start > 0 && rule.charAt(start - 1) == '\\') {
+                    // part of an escape, like \d or \x73, rather than literal letters
+                    break;
+                }
+                suffix.insert(0, rule.substring(start, end));
+
+                // continue into a preceding group of literal letters, like (ess)
+                int open = start > 1 && rule.charAt(start - 1) == ')' && rule.charAt(start - 2) != '\\' ? rule.lastIndexOf('(', start - 1) : -1;
+                if (open < 0 || open + 1 == start - 1 || (open > 0 && rule.charAt(open - 1) == '\\')) {
+                    break;
+                }
+                for (int i = open + 1; i < start - 1; i++) {
+                    if (!isAsciiLetterOrDigit(rule.charAt(i))) {
+                        return suffix.length() > 0 ? toLowerCaseAscii(suffix.toString()) : null;
+                    }
+                }
+                suffix.insert(0, rule.substring(open + 1, start - 1));
+                end = open;
+            }
+
+            return suffix.length() > 0 ? toLowerCaseAscii(suffix.toString()) : null;
+        }
+
+        private static boolean hasTopLevelAlternation(String rule) {
+            int depth = 0;
+            boolean inClass = false;
+            for (int i = 0; i < rule.length(); i++) {
+                char c = rule.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (inClass) {
+                    inClass = c != ']';
+                } else if (c == '[') {
+                    inClass = true;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '|' && depth == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isAsciiLetterOrDigit(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
         }
 
         public String getReplacement() {
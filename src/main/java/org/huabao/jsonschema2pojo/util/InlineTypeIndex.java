@@ -0,0 +1,145 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.huabao.codemodel.JType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Remembers the types generated for inline schemas, by structure, so that
+ * structurally identical inline schemas can share a type (see
+ * {@link org.huabao.jsonschema2pojo.GenerationConfig#isDeduplicateInlineTypes()}).
+ * <p>
+ * The structure of a schema is identified by a hash that is built bottom-up
+ * from the hashes of its children, and every hash is remembered against its
+ * node, so hashing a schema and then each schema nested in it reads every
+ * node only once. Keywords are hashed in name order, but the schemas of a
+ * <code>properties</code> keyword are hashed in document order, since that is
+ * the order of the generated fields. Types are held weakly, since the code model they belong to
+ * already holds them.
+ */
+public class InlineTypeIndex {
+
+    private final Map<JsonNode, String> hashes = new IdentityHashMap<>();
+
+    private final Map<JsonNode, Boolean> withReferences = new IdentityHashMap<>();
+
+    private final Map<String, WeakReference<JType>> types = new HashMap<>();
+
+    /**
+     * Identifies an inline schema by its content and the package its type is
+     * generated into. References are relative to the document containing the
+     * schema, so schemas containing references also need to be in the same
+     * document to be identical.
+     *
+     * @param schemaNode
+     *            the inline schema
+     * @param packageName
+     *            the package the schema's type is generated into
+     * @param documentId
+     *            the document containing the schema, may be <code>null</code>
+     * @return a key for {@link #get(String)} and {@link #put(String, JType)}
+     */
+    public String structureKey(JsonNode schemaNode, String packageName, URI documentId) {
+        String key = packageName + ":" + hash(schemaNode, false);
+        if (withReferences.containsKey(schemaNode) && documentId != null) {
+            key += ":" + documentId;
+        }
+        return key;
+    }
+
+    /**
+     * @return the type generated for the first inline schema with the given
+     *         structure, or <code>null</code> if there was none
+     */
+    public JType get(String structureKey) {
+        WeakReference<JType> type = types.get(structureKey);
+        return type == null ? null : type.get();
+    }
+
+    /**
+     * Records the type generated for an inline schema, so that later inline
+     * schemas with the same structure can reuse it.
+     */
+    public void put(String structureKey, JType type) {
+        if (get(structureKey) == null) {
+            types.put(structureKey, new WeakReference<>(type));
+        }
+    }
+
+    private String hash(JsonNode node, boolean ordered) {
+        String hash = hashes.get(node);
+        if (hash != null) {
+            return hash;
+        }
+
+        MessageDigest digest = Fingerprints.sha256();
+        boolean references = false;
+        if (node.isObject()) {
+            List<String> fieldNames = new ArrayList<>();
+            for (Iterator<String> names = node.fieldNames(); names.hasNext();) {
+                fieldNames.add(names.next());
+            }
+            if (!ordered) {
+                Collections.sort(fieldNames);
+            }
+
+            digest.update((byte) (ordered ? '(' : '{'));
+            for (String fieldName : fieldNames) {
+                JsonNode value = node.get(fieldName);
+                // the length keeps names from running into the hashes that follow them
+                update(digest, fieldName.length() + ":" + fieldName + "=" + hash(value, !ordered && "properties".equals(fieldName)) + ",");
+                references |= "$ref".equals(fieldName) || withReferences.containsKey(value);
+            }
+        } else if (node.isArray()) {
+            digest.update((byte) '[');
+            for (JsonNode element : node) {
+                update(digest, hash(element, false) + ",");
+                references |= withReferences.containsKey(element);
+            }
+        } else {
+            update(digest, node.getNodeType() + ":" + node.toString());
+        }
+
+        hash = Fingerprints.toHex(digest.digest());
+        if (node.isContainerNode()) {
+            hashes.put(node, hash);
+            if (references) {
+                withReferences.put(node, Boolean.TRUE);
+            }
+        }
+        return hash;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
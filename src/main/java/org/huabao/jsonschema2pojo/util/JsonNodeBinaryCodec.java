@@ -0,0 +1,222 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BigIntegerNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.FloatNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * A compact binary encoding of Jackson trees. Each node is written as a
+ * one-byte tag followed by its value, so that a tree read back has exactly
+ * the same node types (e.g. {@link IntNode} vs {@link LongNode} vs
+ * {@link DecimalNode}) and values as the tree that was written, and can be
+ * decoded without any text parsing.
+ */
+public class JsonNodeBinaryCodec {
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte BIG_INTEGER = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte DECIMAL = 8;
+    private static final byte TEXT = 9;
+    private static final byte BINARY = 10;
+    private static final byte ARRAY = 11;
+    private static final byte OBJECT = 12;
+
+    /**
+     * Writes the given tree.
+     *
+     * @param node
+     *            the tree to encode
+     * @param out
+     *            the destination of the encoded bytes
+     * @throws IOException
+     *             if the destination cannot be written
+     * @throws IllegalArgumentException
+     *             if the tree contains a node that has no encoding (e.g. a
+     *             POJO node)
+     */
+    public static void write(JsonNode node, DataOutput out) throws IOException {
+        switch (node.getNodeType()) {
+            case NULL:
+                out.writeByte(NULL);
+                break;
+            case BOOLEAN:
+                out.writeByte(node.booleanValue() ? TRUE : FALSE);
+                break;
+            case NUMBER:
+                writeNumber(node, out);
+                break;
+            case STRING:
+                out.writeByte(TEXT);
+                writeBytes(node.textValue().getBytes(StandardCharsets.UTF_8), out);
+                break;
+            case BINARY:
+                out.writeByte(BINARY);
+                writeBytes(node.binaryValue(), out);
+                break;
+            case ARRAY:
+                out.writeByte(ARRAY);
+                out.writeInt(node.size());
+                for (JsonNode element : node) {
+                    write(element, out);
+                }
+                break;
+            case OBJECT:
+                out.writeByte(OBJECT);
+                out.writeInt(node.size());
+                for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext();) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    writeBytes(field.getKey().getBytes(StandardCharsets.UTF_8), out);
+                    write(field.getValue(), out);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unable to encode node of type " + node.getNodeType());
+        }
+    }
+
+    private static void writeNumber(JsonNode node, DataOutput out) throws IOException {
+        switch (node.numberType()) {
+            case INT:
+                out.writeByte(INT);
+                out.writeInt(node.intValue());
+                break;
+            case LONG:
+                out.writeByte(LONG);
+                out.writeLong(node.longValue());
+                break;
+            case BIG_INTEGER:
+                out.writeByte(BIG_INTEGER);
+                writeBytes(node.bigIntegerValue().toByteArray(), out);
+                break;
+            case FLOAT:
+                out.writeByte(FLOAT);
+                out.writeFloat(node.floatValue());
+                break;
+            case DOUBLE:
+                out.writeByte(DOUBLE);
+                out.writeDouble(node.doubleValue());
+                break;
+            case BIG_DECIMAL:
+                out.writeByte(DECIMAL);
+                out.writeInt(node.decimalValue().scale());
+                writeBytes(node.decimalValue().unscaledValue().toByteArray(), out);
+                break;
+            default:
+                throw new IllegalArgumentException("Unable to encode number of type " + node.numberType());
+        }
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutput out) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a tree previously written by {@link #write(JsonNode, DataOutput)},
+     * starting at the current position of the given buffer.
+     *
+     * @param in
+     *            the encoded bytes
+     * @return the decoded tree
+     * @throws IllegalArgumentException
+     *             if the buffer does not hold a valid encoding
+     */
+    public static JsonNode read(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case NULL:
+                return NullNode.getInstance();
+            case TRUE:
+                return BooleanNode.TRUE;
+            case FALSE:
+                return BooleanNode.FALSE;
+            case INT:
+                return IntNode.valueOf(in.getInt());
+            case LONG:
+                return LongNode.valueOf(in.getLong());
+            case BIG_INTEGER:
+                return BigIntegerNode.valueOf(new BigInteger(readBytes(in)));
+            case FLOAT:
+                return FloatNode.valueOf(in.getFloat());
+            case DOUBLE:
+                return DoubleNode.valueOf(in.getDouble());
+            case DECIMAL:
+                int scale = in.getInt();
+                return DecimalNode.valueOf(new BigDecimal(new BigInteger(readBytes(in)), scale));
+            case TEXT:
+                return TextNode.valueOf(new String(readBytes(in), StandardCharsets.UTF_8));
+            case BINARY:
+                return BinaryNode.valueOf(readBytes(in));
+            case ARRAY:
+                int size = in.getInt();
+                ArrayNode array = JsonNodeFactory.instance.arrayNode();
+                for (int i = 0; i < size; i++) {
+                    array.add(read(in));
+                }
+                return array;
+            case OBJECT:
+                int fieldCount = in.getInt();
+                ObjectNode object = JsonNodeFactory.instance.objectNode();
+                for (int i = 0; i < fieldCount; i++) {
+                    String name = new String(readBytes(in), StandardCharsets.UTF_8);
+                    object.set(name, read(in));
+                }
+                return object;
+            default:
+                throw new IllegalArgumentException("Unknown node tag " + tag);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("Invalid length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+}
@@ -40,4 +40,24 @@ public class MakeUniqueClassName {
             return className + "__1";
         }
     }
+
+    /**
+     * Gives the name that results from applying {@link #makeUnique(String)}
+     * the given number of times, without computing each name in between.
+     */
+    public static String makeUnique(String className, int attempts) {
+
+        if (attempts == 0) {
+            return className;
+        }
+
+        final Matcher m = UNIQUE_NAMING_PATTERN.matcher(className);
+
+        if (m.matches()) {
+            final Integer number = Integer.parseInt(m.group(2));
+            return m.group(1) + (number + attempts);
+        } else {
+            return className + "__" + attempts;
+        }
+    }
 }
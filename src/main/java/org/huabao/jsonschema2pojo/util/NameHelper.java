@@ -20,12 +20,14 @@ import static java.lang.Character.*;
 import static javax.lang.model.SourceVersion.*;
 import static org.apache.commons.lang3.StringUtils.*;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.commons.lang3.text.WordUtils;
 import org.huabao.jsonschema2pojo.GenerationConfig;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import org.huabao.codemodel.JClass;
-import org.huabao.codemodel.JClassAlreadyExistsException;
 import org.huabao.codemodel.JDefinedClass;
 import org.huabao.codemodel.JPackage;
 import org.huabao.codemodel.JType;
@@ -34,8 +36,16 @@ public class NameHelper {
 
     public static final String ILLEGAL_CHARACTER_REGEX = "[^0-9a-zA-Z_$]";
 
+    /**
+     * The number of distinct property names whose derived names are
+     * remembered. When exceeded, the memo is cleared and starts again.
+     */
+    private static final int MAX_MEMOIZED_NAMES = 8192;
+
     private final GenerationConfig generationConfig;
 
+    private final Map<String, DerivedNames> derivedNames = new ConcurrentHashMap<>();
+
     public NameHelper(GenerationConfig generationConfig) {
         this.generationConfig = generationConfig;
     }
@@ -45,7 +55,26 @@ public class NameHelper {
     }
 
     public String replaceIllegalCharacters(String name) {
-        return name.replaceAll(ILLEGAL_CHARACTER_REGEX, "_");
+        // equivalent to name.replaceAll(ILLEGAL_CHARACTER_REGEX, "_") (one '_' per code point), without allocating when nothing is replaced
+        int i = 0;
+        while (i < name.length() && isLegalCharacter(name.charAt(i))) {
+            i++;
+        }
+        if (i == name.length()) {
+            return name;
+        }
+
+        StringBuilder replaced = new StringBuilder(name.length()).append(name, 0, i);
+        while (i < name.length()) {
+            int codePoint = name.codePointAt(i);
+            replaced.append(isLegalCharacter(codePoint) ? (char) codePoint : '_');
+            i += Character.charCount(codePoint);
+        }
+        return replaced.toString();
+    }
+
+    private static boolean isLegalCharacter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '$';
     }
 
     public String normalizeName(String name) {
@@ -81,15 +110,24 @@ public class NameHelper {
     }
 
     private boolean areAllWordsUpperCaseBesideDelimiters(String words, char... delimiters) {
-        char[] wordChars = words.toCharArray();
-        for (char c : wordChars) {
-            if (!containsAny("" + c, delimiters) && Character.isLowerCase(c)) {
+        for (int i = 0; i < words.length(); i++) {
+            char c = words.charAt(i);
+            if (Character.isLowerCase(c) && !isDelimiter(c, delimiters)) {
                 return false;
             }
         }
         return true;
     }
 
+    private static boolean isDelimiter(char c, char[] delimiters) {
+        for (char delimiter : delimiters) {
+            if (c == delimiter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String makeLowerCamelCase(String name) {
         return toLowerCase(name.charAt(0)) + name.substring(1);
     }
@@ -103,8 +141,10 @@ public class NameHelper {
      * @return
      */
     public String getPropertyName(String jsonFieldName, JsonNode node) {
-        jsonFieldName = getFieldName(jsonFieldName, node);
+        return getDerivedNames(jsonFieldName, node).getPropertyName();
+    }
 
+    private String derivePropertyName(String jsonFieldName) {
         jsonFieldName = replaceIllegalCharacters(jsonFieldName);
         jsonFieldName = normalizeName(jsonFieldName);
         jsonFieldName = makeLowerCamelCase(jsonFieldName);
@@ -128,8 +168,10 @@ public class NameHelper {
      * @return
      */
     public String getSetterName(String propertyName, JsonNode node) {
-        propertyName = getPropertyNameForAccessor(propertyName, node);
+        return getDerivedNames(propertyName, node).setterName;
+    }
 
+    private String deriveSetterName(String propertyName) {
         String prefix = "set";
 
         String setterName;
@@ -147,8 +189,10 @@ public class NameHelper {
     }
 
     public String getBuilderName(String propertyName, JsonNode node) {
-        propertyName = getPropertyNameForAccessor(propertyName, node);
+        return getDerivedNames(propertyName, node).builderName;
+    }
 
+    private String deriveBuilderName(String propertyName) {
         String prefix = "with";
 
         if (propertyName.length() > 1 && Character.isUpperCase(propertyName.charAt(1))) {
@@ -197,10 +241,11 @@ public class NameHelper {
      * @return
      */
     public String getGetterName(String propertyName, JType type, JsonNode node) {
-        propertyName = getPropertyNameForAccessor(propertyName, node);
-
-        String prefix = type.equals(type.owner()._ref(boolean.class)) ? "is" : "get";
+        DerivedNames names = getDerivedNames(propertyName, node);
+        return type.equals(type.owner()._ref(boolean.class)) ? names.booleanGetterName : names.getterName;
+    }
 
+    private String deriveGetterName(String propertyName, String prefix) {
         String getterName;
         if (propertyName.length() > 1 && Character.isUpperCase(propertyName.charAt(1))) {
             getterName = prefix + propertyName;
@@ -215,13 +260,71 @@ public class NameHelper {
         return getterName;
     }
 
-    private String getPropertyNameForAccessor(String jsonPropertyName, JsonNode node) {
-        jsonPropertyName = getFieldName(jsonPropertyName, node);
+    private String getPropertyNameForAccessor(String jsonPropertyName) {
         jsonPropertyName = replaceIllegalCharacters(jsonPropertyName);
         jsonPropertyName = capitalizeTrailingWords(jsonPropertyName);
         return jsonPropertyName;
     }
 
+    /**
+     * Gets the names derived from the given property, which depend only on
+     * the property name (or its javaName, when given). These are remembered,
+     * since the same property name is typically needed many times over as
+     * the field, accessors, builders and constructors for a property are
+     * generated.
+     */
+    private DerivedNames getDerivedNames(String jsonPropertyName, JsonNode node) {
+        String fieldName = getFieldName(jsonPropertyName, node);
+
+        DerivedNames names = derivedNames.get(fieldName);
+        if (names == null) {
+            String accessorName = getPropertyNameForAccessor(fieldName);
+            names = new DerivedNames(fieldName,
+                    deriveGetterName(accessorName, "get"),
+                    deriveGetterName(accessorName, "is"),
+                    deriveSetterName(accessorName),
+                    deriveBuilderName(accessorName));
+
+            if (derivedNames.size() >= MAX_MEMOIZED_NAMES) {
+                derivedNames.clear();
+            }
+            derivedNames.put(fieldName, names);
+        }
+        return names;
+    }
+
+    /**
+     * The names derived from a single property name.
+     */
+    private final class DerivedNames {
+
+        private final String fieldName;
+        private final String getterName;
+        private final String booleanGetterName;
+        private final String setterName;
+        private final String builderName;
+
+        // derived on first use, since it cannot be derived from every name that accessors can be
+        private String propertyName;
+
+        DerivedNames(String fieldName, String getterName, String booleanGetterName, String setterName, String builderName) {
+            this.fieldName = fieldName;
+            this.getterName = getterName;
+            this.booleanGetterName = booleanGetterName;
+            this.setterName = setterName;
+            this.builderName = builderName;
+        }
+
+        String getPropertyName() {
+            String name = propertyName;
+            if (name == null) {
+                name = derivePropertyName(fieldName);
+                propertyName = name;
+            }
+            return name;
+        }
+    }
+
     public String getBaseBuilderClassName(JClass outerClass) {
         return outerClass.name() + getBuilderClassNameSuffix(outerClass) + getBaseBuilderClassNameSuffix(outerClass);
     }
@@ -267,12 +370,6 @@ public class NameHelper {
     }
 
     private String makeUnique(String className, JPackage _package) {
-        try {
-            JDefinedClass _class = _package._class(className);
-            _package.remove(_class);
-            return className;
-        } catch (JClassAlreadyExistsException e) {
-            return makeUnique(MakeUniqueClassName.makeUnique(className), _package);
-        }
+        return GenerationContext.of(_package.owner()).getClassNameRegistry().getUniqueClassName(className, _package);
     }
 }
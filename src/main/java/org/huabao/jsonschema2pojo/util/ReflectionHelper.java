@@ -16,7 +16,6 @@
 
 package org.huabao.jsonschema2pojo.util;
 
-import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Map;
@@ -32,6 +31,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import org.huabao.codemodel.JClass;
 import org.huabao.codemodel.JDefinedClass;
 import org.huabao.codemodel.JFieldVar;
+import org.huabao.codemodel.JMethod;
 import org.huabao.codemodel.JPackage;
 import org.huabao.codemodel.JType;
 
@@ -93,37 +93,35 @@ public class ReflectionHelper {
 
   public JDefinedClass getConcreteBuilderClass(JDefinedClass instanceClass) {
     String builderClassname = ruleFactory.getNameHelper().getBuilderClassName(instanceClass);
-
-    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(instanceClass.classes(), Spliterator.ORDERED), false)
-            .filter(definedClass -> definedClass.name().equals(builderClassname)).findFirst().orElse(null);
+    return getNestedClass(instanceClass, builderClassname);
   }
 
   public JDefinedClass getConcreteBuilderClass(JClass target) {
     String builderClassname = ruleFactory.getNameHelper().getBuilderClassName(target);
-    return getAllPackageClasses(target._package()).stream().filter(definedClass -> definedClass.name().equals(builderClassname)).findFirst()
-            .orElse(null);
+    return findPackageClass(builderClassname, target._package());
   }
 
   public JDefinedClass getBaseBuilderClass(JDefinedClass target) {
     String builderClassname = ruleFactory.getNameHelper().getBaseBuilderClassName(target);
-
-    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(target.classes(), Spliterator.ORDERED), false)
-        .filter(definedClass -> definedClass.name().equals(builderClassname)).findFirst().orElse(null);
+    return getNestedClass(target, builderClassname);
   }
 
   public JDefinedClass getBaseBuilderClass(JClass target) {
     String builderClassname = ruleFactory.getNameHelper().getBaseBuilderClassName(target);
-    return getAllPackageClasses(target._package()).stream().filter(definedClass -> definedClass.name().equals(builderClassname)).findFirst()
-        .orElse(null);
+    return findPackageClass(builderClassname, target._package());
+  }
+
+  /**
+   * Finds a method of the given class by name and parameter types, as
+   * {@link JDefinedClass#getMethod(String, JType[])} does, without scanning
+   * every method of the class.
+   */
+  public JMethod getMethod(JDefinedClass jclass, String name, JType... argTypes) {
+    return GenerationContext.of(jclass.owner()).getSymbolIndex().getMethod(jclass, name, argTypes);
   }
 
   public boolean isFinal(JType superType) {
-    try {
-      Class<?> javaClass = Class.forName(superType.fullName());
-      return Modifier.isFinal(javaClass.getModifiers());
-    } catch (ClassNotFoundException e) {
-      return false;
-    }
+    return ruleFactory.getTypeClassificationCache().isFinal(superType.fullName());
   }
 
   public JFieldVar searchClassAndSuperClassesForField(String property, JDefinedClass jclass) {
@@ -158,8 +156,49 @@ public class ReflectionHelper {
   }
 
   private JDefinedClass _getClass(String name, JPackage _package) {
-    return getAllPackageClasses(_package).stream().filter(definedClass -> definedClass.name().equals(name)).findFirst()
-        .orElseThrow(() -> new NoClassDefFoundError(name));
+    JDefinedClass definedClass = findPackageClass(name, _package);
+    if (definedClass == null) {
+      throw new NoClassDefFoundError(name);
+    }
+    return definedClass;
+  }
+
+  private JDefinedClass getNestedClass(JDefinedClass outer, String name) {
+    SymbolIndex symbolIndex = GenerationContext.of(outer.owner()).getSymbolIndex();
+    JDefinedClass nestedClass = symbolIndex.getNestedClass(outer, name);
+    if (nestedClass != null) {
+      return nestedClass;
+    }
+
+    // nested classes created outside of the rules are not indexed, fall back to a scan
+    nestedClass = StreamSupport.stream(Spliterators.spliteratorUnknownSize(outer.classes(), Spliterator.ORDERED), false)
+        .filter(definedClass -> definedClass.name().equals(name)).findFirst().orElse(null);
+    if (nestedClass != null) {
+      symbolIndex.addNestedClass(nestedClass);
+    }
+    return nestedClass;
+  }
+
+  private JDefinedClass findPackageClass(String name, JPackage _package) {
+    SymbolIndex symbolIndex = GenerationContext.of(_package.owner()).getSymbolIndex();
+    JDefinedClass definedClass = symbolIndex.getClass(_package, name);
+    if (definedClass != null) {
+      return definedClass;
+    }
+
+    if (symbolIndex.isKnownMissing(_package, name)) {
+      return null;
+    }
+
+    // the index finds top level classes through their package, but only knows the nested classes
+    // that were added to it, so scan the classes nested in every top level class of the package
+    definedClass = getAllPackageClasses(_package).stream().filter(c -> c.name().equals(name)).findFirst().orElse(null);
+    if (definedClass != null) {
+      symbolIndex.addNestedClass(definedClass);
+    } else {
+      symbolIndex.addMissing(_package, name);
+    }
+    return definedClass;
   }
 
   private Collection<JDefinedClass> getAllPackageClasses(JPackage _package) {
@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.huabao.codemodel.JClass;
+import org.huabao.codemodel.JCodeModel;
+
+/**
+ * Remembers how the Java type expressions used by a code model (see
+ * {@link TypeUtil#resolveType(org.huabao.codemodel.JClassContainer, String)})
+ * were parsed and resolved.
+ * <p>
+ * Type expressions whose classes can all be loaded are remembered as the
+ * resolved {@link JClass}. The rest are remembered in parsed form and built
+ * again each time, since every reference to a class that can't be loaded must
+ * be a distinct {@link JClass} instance for the generated imports to stay the
+ * same.
+ */
+public class ResolvedTypeCache {
+
+    private static final WeakReference<JClass> NOT_LOADABLE = new WeakReference<>(null);
+
+    private final ConcurrentMap<String, WeakReference<JClass>> types = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, TypeExpression> expressions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, WeakReference<JClass>> classes = new ConcurrentHashMap<>();
+
+    JClass getType(String typeDefinition) {
+        WeakReference<JClass> type = types.get(typeDefinition);
+        return type == null ? null : type.get();
+    }
+
+    void putType(String typeDefinition, JClass type) {
+        types.put(typeDefinition, new WeakReference<>(type));
+    }
+
+    TypeExpression getExpression(String typeDefinition) {
+        return expressions.get(typeDefinition);
+    }
+
+    void putExpression(String typeDefinition, TypeExpression expression) {
+        expressions.put(typeDefinition, expression);
+    }
+
+    /**
+     * Gets a reference to the named class, as {@link JCodeModel#ref(String)}
+     * does, but only attempts to load each name once.
+     *
+     * @return the referenced class, or a new direct reference if the class
+     *         can't be loaded
+     */
+    JClass ref(JCodeModel owner, String fullyQualifiedClassName) {
+        WeakReference<JClass> known = classes.get(fullyQualifiedClassName);
+        JClass _class = known == null ? null : known.get();
+        if (_class != null) {
+            return _class;
+        }
+        if (known == NOT_LOADABLE) {
+            return owner.directClass(fullyQualifiedClassName);
+        }
+
+        Class<?> loadedClass = load(fullyQualifiedClassName);
+        if (loadedClass == null) {
+            classes.put(fullyQualifiedClassName, NOT_LOADABLE);
+            return owner.directClass(fullyQualifiedClassName);
+        }
+
+        _class = owner.ref(loadedClass);
+        classes.put(fullyQualifiedClassName, new WeakReference<>(_class));
+        return _class;
+    }
+
+    /**
+     * @return whether the named class could be loaded when it was first
+     *         referenced
+     */
+    boolean isLoaded(String fullyQualifiedClassName) {
+        WeakReference<JClass> known = classes.get(fullyQualifiedClassName);
+        return known != null && known != NOT_LOADABLE;
+    }
+
+    private static Class<?> load(String fullyQualifiedClassName) {
+        // the same class loaders, in the same order, as JCodeModel.ref(String)
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            try {
+                return contextClassLoader.loadClass(fullyQualifiedClassName);
+            } catch (ClassNotFoundException e) {
+                // fall through
+            }
+        }
+        try {
+            return Class.forName(fullyQualifiedClassName, true, JCodeModel.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+}
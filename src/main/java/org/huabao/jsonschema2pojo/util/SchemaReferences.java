@@ -0,0 +1,195 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import static org.apache.commons.lang3.StringUtils.*;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.huabao.jsonschema2pojo.FragmentResolver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Finds the other documents that a schema document refers to using
+ * <code>$ref</code>, and the parts of a document that are reachable through
+ * references within it.
+ */
+public class SchemaReferences {
+
+    /**
+     * Collects the documents referenced from anywhere within the given schema
+     * content. References that point back into the same document (e.g.
+     * <code>#/definitions/foo</code>) are not included.
+     *
+     * @param documentId
+     *            the location of the document, against which relative
+     *            references are resolved
+     * @param content
+     *            the document content
+     * @return the URIs (without fragments) of referenced documents, in the
+     *         order they appear
+     */
+    public static Set<URI> documentReferences(URI documentId, JsonNode content) {
+        Set<URI> references = new LinkedHashSet<>();
+        collect(documentId, content, references);
+        return references;
+    }
+
+    /**
+     * Collects the definitions (entries of the top-level
+     * <code>definitions</code> or <code>$defs</code> of the document) that are
+     * reachable from the given fragments, by following references within the
+     * document from every schema nested in the fragments (properties, items,
+     * additionalProperties, extends and so on) and, in turn, from every
+     * schema nested in what they refer to. References to other documents are
+     * not followed. Nested <code>definitions</code> are skipped, since types
+     * are only generated for them when they are referred to (a property named
+     * <code>definitions</code> is followed like any other).
+     *
+     * @param documentId
+     *            the location of the document, used to recognise references
+     *            that name the document itself (e.g.
+     *            <code>bundle.json#/definitions/foo</code>)
+     * @param content
+     *            the document content
+     * @param fragments
+     *            the fragments (e.g. <code>#/definitions/foo</code>) to start
+     *            from
+     * @param refFragmentPathDelimiters
+     *            the characters that act as path delimiters in fragments
+     * @return the reachable definitions, each as <code>definitions/name</code>
+     *         or <code>$defs/name</code>
+     */
+    public static Set<String> reachableDefinitions(URI documentId, JsonNode content, Collection<String> fragments, String refFragmentPathDelimiters) {
+        FragmentResolver fragmentResolver = new FragmentResolver();
+        Set<String> definitions = new LinkedHashSet<>();
+
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(fragments);
+        while (!pending.isEmpty()) {
+            String fragment = pending.pop();
+            if (!visited.add(fragment)) {
+                continue;
+            }
+
+            String[] path = split(fragment, refFragmentPathDelimiters);
+            if (path.length >= 2 && isDefinitions(path[0]) && content.path(path[0]).has(path[1])) {
+                definitions.add(path[0] + "/" + path[1]);
+            }
+
+            collectLocal(documentId, fragmentResolver.resolve(content, fragment, refFragmentPathDelimiters), pending);
+        }
+
+        return definitions;
+    }
+
+    /**
+     * @return the number of definitions (entries of the top-level
+     *         <code>definitions</code> and <code>$defs</code>) in the given
+     *         document
+     */
+    public static int countDefinitions(JsonNode content) {
+        return content.path("definitions").size() + content.path("$defs").size();
+    }
+
+    private static boolean isDefinitions(String fieldName) {
+        return "definitions".equals(fieldName) || "$defs".equals(fieldName);
+    }
+
+    private static boolean isPropertyMap(String fieldName) {
+        return "properties".equals(fieldName) || "patternProperties".equals(fieldName);
+    }
+
+    private static void collectLocal(URI documentId, JsonNode schema, Deque<String> fragments) {
+        Deque<JsonNode> pending = new ArrayDeque<>();
+        // whether each pending node maps property names to schemas, whose names are never keywords
+        Deque<Boolean> propertyMaps = new ArrayDeque<>();
+        pending.push(schema);
+        propertyMaps.push(Boolean.FALSE);
+        while (!pending.isEmpty()) {
+            JsonNode node = pending.pop();
+            boolean propertyMap = propertyMaps.pop();
+            if (node.isObject()) {
+                for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext();) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (propertyMap) {
+                        pending.push(field.getValue());
+                        propertyMaps.push(Boolean.FALSE);
+                    } else if ("$ref".equals(field.getKey()) && field.getValue().isTextual()) {
+                        String fragment = localFragment(documentId, field.getValue().asText());
+                        if (fragment != null) {
+                            fragments.push(fragment);
+                        }
+                    } else if (!isDefinitions(field.getKey())) {
+                        pending.push(field.getValue());
+                        propertyMaps.push(isPropertyMap(field.getKey()));
+                    }
+                }
+            } else if (node.isArray()) {
+                for (JsonNode element : node) {
+                    pending.push(element);
+                    propertyMaps.push(Boolean.FALSE);
+                }
+            }
+        }
+    }
+
+    private static String localFragment(URI documentId, String ref) {
+        String path = substringBefore(ref, "#");
+        if (!path.isEmpty() && (documentId == null || !documentId.resolve(path).normalize().equals(documentId.normalize()))) {
+            return null;
+        }
+        return "#" + substringAfter(ref, "#");
+    }
+
+    private static void collect(URI documentId, JsonNode node, Set<URI> references) {
+        if (node.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext();) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if ("$ref".equals(field.getKey()) && field.getValue().isTextual()) {
+                    addReference(documentId, field.getValue().asText(), references);
+                } else {
+                    collect(documentId, field.getValue(), references);
+                }
+            }
+        } else if (node.isArray()) {
+            for (JsonNode element : node) {
+                collect(documentId, element, references);
+            }
+        }
+    }
+
+    private static void addReference(URI documentId, String ref, Set<URI> references) {
+        String path = substringBefore(ref, "#");
+        if (path.isEmpty()) {
+            return;
+        }
+
+        URI reference = documentId == null ? URI.create(path) : documentId.resolve(path);
+        references.add(reference.normalize());
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.huabao.codemodel.JClass;
+import org.huabao.codemodel.JDefinedClass;
+import org.huabao.codemodel.JMethod;
+import org.huabao.codemodel.JPackage;
+import org.huabao.codemodel.JType;
+
+/**
+ * Indexes the classes and methods of a code model so that they can be found
+ * by name without scanning every class in a package, or every method of a
+ * class.
+ * <p>
+ * Top level classes are found through their package. Nested classes are
+ * indexed as they are added (see {@link #addNestedClass(JDefinedClass)}), so a
+ * lookup that finds nothing may still need to fall back to a scan if nested
+ * classes can be created without being added. Names that a scan didn't find
+ * either can be remembered (see {@link #addMissing(JPackage, String)}) until
+ * the next nested class is added, so code that creates nested classes
+ * outside the rules should add them here. Methods are indexed on demand,
+ * as each class gains new methods. Everything is held through weak
+ * references, so the index never keeps a code model alive.
+ */
+public class SymbolIndex {
+
+    private final Map<String, Map<String, List<WeakReference<JDefinedClass>>>> nestedClassesByPackage = new HashMap<>();
+
+    private final Map<JDefinedClass, MethodTable> methodTables = new WeakHashMap<>();
+
+    private final Map<String, Set<String>> missingClassesByPackage = new HashMap<>();
+
+    /**
+     * Adds a class that has been created inside another class.
+     *
+     * @param nestedClass
+     *            the nested class
+     */
+    public synchronized void addNestedClass(JDefinedClass nestedClass) {
+        if (nestedClass.outer() == null) {
+            return;
+        }
+
+        List<WeakReference<JDefinedClass>> nestedClasses = nestedClassesByPackage
+                .computeIfAbsent(nestedClass._package().name(), p -> new HashMap<>())
+                .computeIfAbsent(nestedClass.name(), n -> new ArrayList<>(1));
+
+        for (WeakReference<JDefinedClass> known : nestedClasses) {
+            if (known.get() == nestedClass) {
+                return;
+            }
+        }
+        nestedClasses.add(new WeakReference<>(nestedClass));
+        missingClassesByPackage.clear();
+    }
+
+    /**
+     * Remembers that neither the index nor a scan of the package found a
+     * class with the given simple name (see
+     * {@link #getClass(JPackage, String)}).
+     *
+     * @param _package
+     *            the package that was searched
+     * @param name
+     *            the simple name of the class
+     */
+    public synchronized void addMissing(JPackage _package, String name) {
+        missingClassesByPackage.computeIfAbsent(_package.name(), p -> new HashSet<>()).add(name);
+    }
+
+    /**
+     * @return whether a class with the given simple name was found missing
+     *         from the package, and no nested class has been added since
+     */
+    public synchronized boolean isKnownMissing(JPackage _package, String name) {
+        Set<String> missingClasses = missingClassesByPackage.get(_package.name());
+        return missingClasses != null && missingClasses.contains(name);
+    }
+
+    /**
+     * Finds the class with the given simple name among the top level classes
+     * of a package and the classes nested directly inside them. When more
+     * than one matches, the first in package order is returned (top level
+     * classes by name, each followed by its nested classes).
+     *
+     * @param _package
+     *            the package to search
+     * @param name
+     *            the simple name of the class
+     * @return the matching class, or <code>null</code> if none is known
+     */
+    public synchronized JDefinedClass getClass(JPackage _package, String name) {
+        JDefinedClass result = _package._getClass(name);
+        String resultOrder = name;
+
+        for (JDefinedClass nestedClass : nestedClasses(_package.name(), name)) {
+            JClass outer = nestedClass.outer();
+            if (outer.outer() == null && (result == null || outer.name().compareTo(resultOrder) < 0)) {
+                result = nestedClass;
+                resultOrder = outer.name();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the class with the given simple name nested inside the given
+     * class.
+     *
+     * @param outer
+     *            the class to search
+     * @param name
+     *            the simple name of the nested class
+     * @return the matching class, or <code>null</code> if none is known
+     */
+    public synchronized JDefinedClass getNestedClass(JDefinedClass outer, String name) {
+        for (JDefinedClass nestedClass : nestedClasses(outer._package().name(), name)) {
+            if (nestedClass.outer() == outer) {
+                return nestedClass;
+            }
+        }
+        return null;
+    }
+
+    private List<JDefinedClass> nestedClasses(String packageName, String name) {
+        Map<String, List<WeakReference<JDefinedClass>>> nestedClasses = nestedClassesByPackage.get(packageName);
+        List<WeakReference<JDefinedClass>> references = nestedClasses == null ? null : nestedClasses.get(name);
+        if (references == null) {
+            return new ArrayList<>(0);
+        }
+
+        List<JDefinedClass> result = new ArrayList<>(references.size());
+        for (WeakReference<JDefinedClass> reference : references) {
+            JDefinedClass nestedClass = reference.get();
+            if (nestedClass != null) {
+                result.add(nestedClass);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds a method by name and parameter types, giving the same result as
+     * {@link JDefinedClass#getMethod(String, JType[])}.
+     *
+     * @param jclass
+     *            the class to search
+     * @param name
+     *            the name of the method
+     * @param argTypes
+     *            the types of the method parameters
+     * @return the matching method, or <code>null</code> if there is none
+     */
+    public synchronized JMethod getMethod(JDefinedClass jclass, String name, JType... argTypes) {
+        Collection<JMethod> methods = jclass.methods();
+        if (!(methods instanceof List)) {
+            return jclass.getMethod(name, argTypes);
+        }
+
+        MethodTable methodTable = methodTables.computeIfAbsent(jclass, c -> new MethodTable());
+        methodTable.update((List<JMethod>) methods);
+
+        List<WeakReference<JMethod>> candidates = methodTable.methodsByName.get(name);
+        if (candidates != null) {
+            for (WeakReference<JMethod> candidate : candidates) {
+                JMethod method = candidate.get();
+                if (method != null && method.name().equals(name) && method.hasSignature(argTypes)) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The methods of a single class, by name. Methods are only ever appended
+     * to a class, so only those added since the last lookup need indexing.
+     */
+    private static final class MethodTable {
+
+        private final Map<String, List<WeakReference<JMethod>>> methodsByName = new HashMap<>();
+        private int indexed;
+
+        void update(List<JMethod> methods) {
+            if (methods.size() < indexed) {
+                methodsByName.clear();
+                indexed = 0;
+            }
+            for (; indexed < methods.size(); indexed++) {
+                JMethod method = methods.get(indexed);
+                methodsByName.computeIfAbsent(method.name(), n -> new ArrayList<>(1)).add(new WeakReference<>(method));
+            }
+        }
+    }
+
+}
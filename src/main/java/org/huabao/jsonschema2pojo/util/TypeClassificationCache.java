@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which fully qualified type names can be loaded as Java classes,
+ * and how those classes are classified, so that each name is only looked up
+ * (with {@link Class#forName(String)}) once for as long as the cache is used.
+ * Names that cannot be loaded, such as the names of types being generated,
+ * are remembered too; they are the expensive case, as every failed lookup
+ * throws a {@link ClassNotFoundException}.
+ * <p>
+ * Nothing is ever removed, and the classes that are found are held strongly
+ * (along with their class loaders), so a cache is meant to be used by a
+ * single {@link org.huabao.jsonschema2pojo.rules.RuleFactory}: one per run
+ * of {@link org.huabao.jsonschema2pojo.Jsonschema2Pojo}, and one per request
+ * of a {@link org.huabao.jsonschema2pojo.GenerationEngine}.
+ */
+public class TypeClassificationCache {
+
+    private static final Classification NOT_LOADABLE = new Classification(null);
+
+    private final ConcurrentMap<String, Classification> classifications = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param className
+     *            a fully qualified class name
+     * @return the class with the given name, or <code>null</code> if it can't
+     *         be loaded
+     */
+    public Class<?> getLoadedClass(String className) {
+        return classify(className).type;
+    }
+
+    /**
+     * @param className
+     *            a fully qualified class name
+     * @return whether the class with the given name can be loaded and is final
+     */
+    public boolean isFinal(String className) {
+        return classify(className).isFinal;
+    }
+
+    /**
+     * @param className
+     *            a fully qualified class name
+     * @return whether the class with the given name can be loaded and is
+     *         assignable to {@link String}
+     */
+    public boolean isString(String className) {
+        return classify(className).isString;
+    }
+
+    /**
+     * @return the number of lookups answered from this cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups that needed a class to be loaded
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private Classification classify(String className) {
+        Classification classification = classifications.get(className);
+        if (classification != null) {
+            hits.incrementAndGet();
+            return classification;
+        }
+
+        misses.incrementAndGet();
+        try {
+            classification = new Classification(Class.forName(className));
+        } catch (ClassNotFoundException e) {
+            classification = NOT_LOADABLE;
+        }
+
+        Classification existing = classifications.putIfAbsent(className, classification);
+        return existing != null ? existing : classification;
+    }
+
+    private static final class Classification {
+
+        private final Class<?> type;
+        private final boolean isFinal;
+        private final boolean isString;
+
+        Classification(Class<?> type) {
+            this.type = type;
+            this.isFinal = type != null && Modifier.isFinal(type.getModifiers());
+            this.isString = type != null && String.class.isAssignableFrom(type);
+        }
+    }
+
+}
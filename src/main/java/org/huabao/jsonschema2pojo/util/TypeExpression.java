@@ -0,0 +1,218 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo.util;
+
+import static java.util.Arrays.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed Java type expression, such as
+ * <code>java.util.Map&lt;String, ? extends com.acme.Money[]&gt;</code>, as
+ * found in <code>existingJavaType</code>, <code>extendsJavaClass</code> and
+ * <code>javaInterfaces</code>.
+ * <p>
+ * Only class types (with type arguments, array dimensions and
+ * <code>? extends</code> wildcards) are recognized. Anything else, such as
+ * primitive types, <code>? super</code> wildcards, annotations or type
+ * arguments on an enclosing type, is left to the full Java parser.
+ */
+final class TypeExpression {
+
+    private static final Set<String> KEYWORDS = new HashSet<>(asList(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const", "continue",
+            "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if",
+            "implements", "import", "instanceof", "int", "interface", "long", "native", "new", "package", "private",
+            "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this",
+            "throw", "throws", "transient", "try", "void", "volatile", "while", "true", "false", "null"));
+
+    private final String name;
+    private final List<TypeExpression> typeArguments;
+    private final int arrayCount;
+    private final boolean wildcard;
+
+    private TypeExpression(String name, List<TypeExpression> typeArguments, int arrayCount, boolean wildcard) {
+        this.name = name;
+        this.typeArguments = typeArguments;
+        this.arrayCount = arrayCount;
+        this.wildcard = wildcard;
+    }
+
+    /**
+     * @return the fully qualified name of this type, or <code>null</code> for
+     *         a wildcard
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return the type arguments of this type, or of the bound of this
+     *         wildcard (an unbounded wildcard has none)
+     */
+    List<TypeExpression> getTypeArguments() {
+        return typeArguments;
+    }
+
+    int getArrayCount() {
+        return arrayCount;
+    }
+
+    boolean isWildcard() {
+        return wildcard;
+    }
+
+    /**
+     * @return the bound of this <code>? extends</code> wildcard, or
+     *         <code>null</code> if this wildcard is unbounded
+     */
+    TypeExpression getBound() {
+        return typeArguments.isEmpty() ? null : typeArguments.get(0);
+    }
+
+    /**
+     * Parses a type expression.
+     *
+     * @param typeDefinition
+     *            the type expression
+     * @return the parsed expression, or <code>null</code> if it isn't a class
+     *         type this parser recognizes
+     */
+    static TypeExpression parse(String typeDefinition) {
+        Parser parser = new Parser(typeDefinition);
+        TypeExpression type = parser.type();
+        return type != null && parser.atEnd() ? type : null;
+    }
+
+    private static final class Parser {
+
+        private final String input;
+        private int position;
+
+        Parser(String input) {
+            this.input = input;
+        }
+
+        boolean atEnd() {
+            skipWhitespace();
+            return position == input.length();
+        }
+
+        TypeExpression type() {
+            StringBuilder name = new StringBuilder();
+            do {
+                String identifier = identifier();
+                if (identifier == null) {
+                    return null;
+                }
+                if (name.length() > 0) {
+                    name.append('.');
+                }
+                name.append(identifier);
+            } while (accept('.'));
+
+            List<TypeExpression> typeArguments = Collections.emptyList();
+            if (accept('<')) {
+                typeArguments = new ArrayList<>();
+                do {
+                    TypeExpression typeArgument = typeArgument();
+                    if (typeArgument == null) {
+                        return null;
+                    }
+                    typeArguments.add(typeArgument);
+                } while (accept(','));
+
+                if (!accept('>')) {
+                    return null;
+                }
+                if (peek('.')) {
+                    // a member of a parameterized type, e.g. Outer<String>.Inner
+                    return null;
+                }
+            }
+
+            int arrayCount = 0;
+            while (accept('[')) {
+                if (!accept(']')) {
+                    return null;
+                }
+                arrayCount++;
+            }
+
+            return new TypeExpression(name.toString(), typeArguments, arrayCount, false);
+        }
+
+        private TypeExpression typeArgument() {
+            if (!accept('?')) {
+                return type();
+            }
+
+            String keyword = word();
+            if (keyword.isEmpty()) {
+                return new TypeExpression(null, Collections.<TypeExpression> emptyList(), 0, true);
+            }
+            if (!keyword.equals("extends")) {
+                return null;
+            }
+
+            TypeExpression bound = type();
+            return bound == null ? null : new TypeExpression(null, Collections.singletonList(bound), 0, true);
+        }
+
+        private String identifier() {
+            String identifier = word();
+            return identifier.isEmpty() || KEYWORDS.contains(identifier) ? null : identifier;
+        }
+
+        private String word() {
+            skipWhitespace();
+            int start = position;
+            if (position < input.length() && Character.isJavaIdentifierStart(input.charAt(position))) {
+                position++;
+                while (position < input.length() && Character.isJavaIdentifierPart(input.charAt(position))) {
+                    position++;
+                }
+            }
+
+            return input.substring(start, position);
+        }
+
+        private boolean accept(char c) {
+            if (peek(c)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean peek(char c) {
+            skipWhitespace();
+            return position < input.length() && input.charAt(position) == c;
+        }
+
+        private void skipWhitespace() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+        }
+    }
+
+}
@@ -22,6 +22,7 @@ import org.huabao.jsonschema2pojo.exception.GenerationException;
 
 import org.huabao.codemodel.JClass;
 import org.huabao.codemodel.JClassContainer;
+import org.huabao.codemodel.JCodeModel;
 
 import japa.parser.JavaParser;
 import japa.parser.ParseException;
@@ -34,6 +35,76 @@ import japa.parser.ast.type.WildcardType;
 public class TypeUtil {
 
     public static JClass resolveType(JClassContainer _package, String typeDefinition) {
+        JCodeModel owner = _package.owner();
+        ResolvedTypeCache cache = GenerationContext.of(owner).getResolvedTypeCache();
+
+        JClass resolvedClass = cache.getType(typeDefinition);
+        if (resolvedClass != null) {
+            return resolvedClass;
+        }
+
+        TypeExpression expression = cache.getExpression(typeDefinition);
+        if (expression == null) {
+            expression = TypeExpression.parse(typeDefinition);
+            if (expression == null) {
+                // not a plain class type, leave it (and any error) to the full parser
+                return parseType(_package, typeDefinition);
+            }
+            cache.putExpression(typeDefinition, expression);
+        }
+
+        resolvedClass = buildClass(owner, cache, expression, 0);
+        if (isLoaded(cache, expression)) {
+            cache.putType(typeDefinition, resolvedClass);
+        }
+        return resolvedClass;
+    }
+
+    private static JClass buildClass(JCodeModel owner, ResolvedTypeCache cache, TypeExpression expression, int arrayCount) {
+        JClass _class = cache.ref(owner, expression.getName());
+
+        for (int i = 0; i < arrayCount; i++) {
+            _class = _class.array();
+        }
+
+        List<TypeExpression> typeArgs = expression.getTypeArguments();
+        if (!typeArgs.isEmpty()) {
+            JClass[] genericArgumentClasses = new JClass[typeArgs.size()];
+
+            for (int i = 0; i < typeArgs.size(); i++) {
+                final TypeExpression typeArg = typeArgs.get(i);
+
+                if (typeArg.isWildcard()) {
+                    genericArgumentClasses[i] = typeArg.getBound() != null
+                            ? buildClass(owner, cache, typeArg.getBound(), 0).wildcard()
+                            : owner.ref(Object.class).wildcard();
+                } else {
+                    genericArgumentClasses[i] = buildClass(owner, cache, typeArg, typeArg.getArrayCount());
+                }
+            }
+
+            _class = _class.narrow(genericArgumentClasses);
+        }
+
+        return _class;
+    }
+
+    private static boolean isLoaded(ResolvedTypeCache cache, TypeExpression expression) {
+        if (expression.isWildcard()) {
+            return expression.getBound() == null || isLoaded(cache, expression.getBound());
+        }
+        if (!cache.isLoaded(expression.getName())) {
+            return false;
+        }
+        for (TypeExpression typeArg : expression.getTypeArguments()) {
+            if (!isLoaded(cache, typeArg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static JClass parseType(JClassContainer _package, String typeDefinition) {
 
         try {
             FieldDeclaration fieldDeclaration = (FieldDeclaration) JavaParser.parseBodyDeclaration(typeDefinition + " foo;");
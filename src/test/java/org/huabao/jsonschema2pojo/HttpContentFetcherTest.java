@@ -0,0 +1,70 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.File;
+import java.net.URI;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+
+public class HttpContentFetcherTest {
+
+    @Rule
+    public WireMockRule server = new WireMockRule(options().dynamicPort());
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void referencedDocumentsArePrefetchedAndRevalidated() throws Exception {
+        stubFor(get(urlEqualTo("/a.json")).willReturn(aResponse()
+                .withHeader("ETag", "\"a1\"")
+                .withBody("{\"properties\":{\"b\":{\"$ref\":\"b.json#/definitions/b\"}}}")));
+        stubFor(get(urlEqualTo("/b.json")).willReturn(aResponse()
+                .withBody("{\"definitions\":{\"b\":{\"type\":\"string\"}}}")));
+
+        File cacheDirectory = folder.newFolder();
+        URI a = URI.create("http://localhost:" + server.port() + "/a.json");
+        URI b = URI.create("http://localhost:" + server.port() + "/b.json");
+
+        ContentResolver resolver = new ContentResolver(null, new HttpContentFetcher(1000, 1000, cacheDirectory, 2));
+        JsonNode content = resolver.resolve(a);
+        assertThat(content.path("properties").path("b").path("$ref").asText(), is("b.json#/definitions/b"));
+        assertThat(resolver.resolve(b).path("definitions").path("b").path("type").asText(), is("string"));
+
+        verify(1, getRequestedFor(urlEqualTo("/a.json")));
+        verify(1, getRequestedFor(urlEqualTo("/b.json")));
+
+        stubFor(get(urlEqualTo("/a.json")).withHeader("If-None-Match", equalTo("\"a1\"")).willReturn(aResponse().withStatus(304)));
+
+        ContentResolver revalidatingResolver = new ContentResolver(null, new HttpContentFetcher(1000, 1000, cacheDirectory, 2));
+        assertThat(revalidatingResolver.resolve(a), is(content));
+
+        verify(getRequestedFor(urlEqualTo("/a.json")).withHeader("If-None-Match", equalTo("\"a1\"")));
+    }
+
+}
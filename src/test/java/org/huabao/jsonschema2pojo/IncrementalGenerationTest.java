@@ -0,0 +1,105 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalGenerationTest {
+
+    private static final long PREVIOUS_RUN = 1000000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void outputOfUnchangedSourcesIsLeftUntouched() throws Exception {
+        File sources = folder.newFolder("sources");
+        File target = folder.newFolder("target");
+        write(new File(sources, "a.json"), "{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"string\"}}}");
+        write(new File(sources, "b.json"), "{\"type\":\"object\",\"properties\":{\"size\":{\"type\":\"integer\"}}}");
+
+        GenerationConfig config = config(sources, target);
+        Jsonschema2Pojo.generate(config, mock(RuleLogger.class));
+
+        File a = new File(target, "p/A.java");
+        File b = new File(target, "p/B.java");
+        String aContent = read(a);
+        assertThat(aContent, containsString("private String name;"));
+        assertThat(read(b), containsString("private Integer size;"));
+        assertThat(a.setLastModified(PREVIOUS_RUN), is(true));
+        assertThat(b.setLastModified(PREVIOUS_RUN), is(true));
+
+        write(new File(sources, "b.json"), "{\"type\":\"object\",\"properties\":{\"size\":{\"type\":\"number\"}}}");
+        Jsonschema2Pojo.generate(config, mock(RuleLogger.class));
+
+        assertThat(a.lastModified(), is(PREVIOUS_RUN));
+        assertThat(read(a), is(aContent));
+        assertThat(b.lastModified(), is(not(PREVIOUS_RUN)));
+        assertThat(read(b), containsString("private Double size;"));
+    }
+
+    private static GenerationConfig config(File sources, File target) {
+        return new DefaultGenerationConfig() {
+            @Override
+            public Iterator<URL> getSource() {
+                try {
+                    return Collections.singletonList(sources.toURI().toURL()).iterator();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public File getTargetDirectory() {
+                return target;
+            }
+
+            @Override
+            public String getTargetPackage() {
+                return "p";
+            }
+
+            @Override
+            public boolean isIncrementalGeneration() {
+                return true;
+            }
+        };
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+}
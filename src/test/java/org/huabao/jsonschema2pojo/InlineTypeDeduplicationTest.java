@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2010-2020 Nokia
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.huabao.jsonschema2pojo;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.huabao.jsonschema2pojo.rules.RuleFactory;
+import org.junit.Test;
+
+public class InlineTypeDeduplicationTest {
+
+    private static final GenerationConfig CONFIG = new DefaultGenerationConfig() {
+        @Override
+        public boolean isDeduplicateInlineTypes() {
+            return true;
+        }
+    };
+
+    @Test
+    public void identicalInlineSchemasShareATypeUnlessTheirPropertiesAreInADifferentOrder() throws Exception {
+        String address = "{\"type\":\"object\",\"properties\":{\"street\":{\"type\":\"string\"},\"zip\":{\"type\":\"string\"}}}";
+        String reordered = "{\"properties\":{\"zip\":{\"type\":\"string\"},\"street\":{\"type\":\"string\"}},\"type\":\"object\"}";
+        String schema = "{\"type\":\"object\",\"properties\":{"
+                + "\"home\":" + address + ","
+                + "\"office\":" + address + ","
+                + "\"work\":" + reordered + "}}";
+
+        Map<String, byte[]> files = mapper().generateSources("Person", "p", schema);
+
+        assertThat(files.keySet(), containsInAnyOrder("p/Person.java", "p/Home.java", "p/Work.java"));
+        String person = new String(files.get("p/Person.java"), StandardCharsets.UTF_8);
+        assertThat(person, containsString("private Home office;"));
+        assertThat(person, containsString("private Work work;"));
+        String work = new String(files.get("p/Work.java"), StandardCharsets.UTF_8);
+        assertThat(work.indexOf("private String zip;"), is(lessThan(work.indexOf("private String street;"))));
+    }
+
+    private static SchemaMapper mapper() {
+        return new SchemaMapper(new RuleFactory(CONFIG, new Jackson2Annotator(CONFIG), new SchemaStore()), new SchemaGenerator());
+    }
+
+}